@@ -1,4 +1,4 @@
-import React, { useEffect, useMemo, useState } from "react";
+import React, { useEffect, useMemo, useRef, useState } from "react";
 import { createRoot } from "react-dom/client";
 import {
   Briefcase,
@@ -24,6 +24,15 @@ const api = {
     return parseResponse(response);
   },
 
+  // Like get, but also returns the response headers (paging cursors and totals)
+  async page(path) {
+    const response = await fetch(path, {
+      headers: buildAuthHeaders(path),
+    });
+    const data = await parseResponse(response);
+    return { data, headers: response.headers };
+  },
+
   async json(path, body, method = "POST") {
     const response = await fetch(path, {
       method,
@@ -80,6 +89,47 @@ async function parseResponse(response) {
   return data;
 }
 
+// Live application updates (application_created, application_status) for the signed-in user.
+// EventSource cannot send the Authorization header, so each connection first exchanges the access
+// token for a short-lived stream token; when the server ends the stream a fresh one is fetched.
+function useApplicationEvents(userId, onEvent) {
+  const handler = useRef(onEvent);
+  handler.current = onEvent;
+
+  useEffect(() => {
+    if (!userId) return;
+    let source = null;
+    let retry = null;
+    let stopped = false;
+
+    async function connect(reconnecting) {
+      try {
+        const { token } = await api.json("/api/applied-jobs/events/token", {});
+        if (stopped) return;
+        source = new EventSource(`/api/applied-jobs/events?access_token=${encodeURIComponent(token)}`);
+        const fire = (event) => handler.current(event.type);
+        source.addEventListener("application_created", fire);
+        source.addEventListener("application_status", fire);
+        // Events sent while disconnected are not replayed; refetch once on a new connection
+        if (reconnecting) source.onopen = () => handler.current("reconnected");
+        source.onerror = () => {
+          if (source.readyState !== EventSource.CLOSED) return;
+          retry = setTimeout(() => connect(true), 5000);
+        };
+      } catch {
+        if (!stopped) retry = setTimeout(() => connect(true), 30000);
+      }
+    }
+
+    connect(false);
+    return () => {
+      stopped = true;
+      clearTimeout(retry);
+      if (source) source.close();
+    };
+  }, [userId]);
+}
+
 function getStoredUserId() {
   const value = sessionStorage.getItem("user_id");
   return value && !Number.isNaN(Number(value)) ? Number(value) : null;
@@ -554,6 +604,8 @@ function AppliedJobsPage({ userId, notify, go }) {
     loadJobs();
   }, [userId]);
 
+  useApplicationEvents(userId, () => loadJobs());
+
   async function withdraw(applicationId) {
     if(!window.confirm("Are you sure you want to withdraw this application?")) return;
     try {
@@ -575,12 +627,25 @@ function AppliedJobsPage({ userId, notify, go }) {
   );
 }
 
+const APPLICANTS_PER_JOB = 50;
+
 function DashboardPage({ userId, notify, go }) {
   const [jobs, setJobs] = useState([]);
+  const [totalJobs, setTotalJobs] = useState(0);
+  const [nextCursor, setNextCursor] = useState(null);
   const [editingJob, setEditingJob] = useState(null);
 
-  async function loadJobs() {
-    api.get(`/api/applied-jobs/posted-applications?userId=${userId}`).then(setJobs).catch((e) => notify(e.message, "error"));
+  // The endpoint returns one page of jobs; later pages are appended via the X-Next-Cursor keyset
+  async function loadJobs(cursor = null) {
+    const query = `userId=${userId}&applicantsPerJob=${APPLICANTS_PER_JOB}${cursor ? `&cursor=${cursor}` : ""}`;
+    try {
+      const { data, headers } = await api.page(`/api/applied-jobs/posted-applications?${query}`);
+      setJobs((current) => (cursor ? [...current, ...data] : data));
+      setTotalJobs(Number(headers.get("X-Total-Count")) || data.length);
+      setNextCursor(headers.get("X-Next-Cursor"));
+    } catch (e) {
+      notify(e.message, "error");
+    }
   }
 
   useEffect(() => {
@@ -588,11 +653,22 @@ function DashboardPage({ userId, notify, go }) {
     loadJobs();
   }, [userId]);
 
+  useApplicationEvents(userId, () => loadJobs());
+
+  // Update loaded rows in place so the pages already appended stay on screen
+  function setApplicantStatuses(jobId, statusOf) {
+    setJobs((current) => current.map((job) => job.job_id !== jobId ? job : {
+      ...job,
+      applicants: (job.applicants || []).map((app) => ({ ...app, status: statusOf(app) })),
+    }));
+  }
+
   async function approve(applicationId, jobId) {
     try {
       await api.json("/api/applied-jobs/approve", { applicationId, jobId, userId });
       notify("Application approved.");
-      loadJobs();
+      // Approving accepts this applicant and rejects the job's other pending ones
+      setApplicantStatuses(jobId, (app) => app.application_id === applicationId ? "Accepted" : app.status === "Pending" ? "Rejected" : app.status);
     } catch (error) {
       notify(error.message, "error");
     }
@@ -603,7 +679,7 @@ function DashboardPage({ userId, notify, go }) {
     try {
       await api.json("/api/applied-jobs/reject", { applicationId, jobId, userId });
       notify("Application rejected.");
-      loadJobs();
+      setApplicantStatuses(jobId, (app) => app.application_id === applicationId ? "Rejected" : app.status);
     } catch (error) {
       notify(error.message, "error");
     }
@@ -620,8 +696,8 @@ function DashboardPage({ userId, notify, go }) {
         salary: editingJob.salary,
       }, "PUT");
       notify("Job updated.");
+      setJobs((current) => current.map((job) => job.job_id === editingJob.job_id ? editingJob : job));
       setEditingJob(null);
-      loadJobs();
     } catch (error) {
       notify(error.message, "error");
     }
@@ -634,6 +710,7 @@ function DashboardPage({ userId, notify, go }) {
       <div className="section-title">
         <ClipboardList size={24} />
         <h1>Posted Jobs</h1>
+        {totalJobs > 0 && <span className="muted">{jobs.length} of {totalJobs}</span>}
       </div>
       {jobs.map((job) => (
         <article className="panel" key={job.job_id}>
@@ -641,6 +718,11 @@ function DashboardPage({ userId, notify, go }) {
             <div>
               <h2>{job.job_title}</h2>
               <p>{job.company} · {job.location}</p>
+              <small className="muted">
+                {(job.applicants || []).length < job.applicant_count
+                  ? `Top ${(job.applicants || []).length} of ${job.applicant_count} applicants by match score`
+                  : `${job.applicant_count} applicants`}
+              </small>
             </div>
             <button className="small" onClick={() => setEditingJob(job)}>Edit Job</button>
           </div>
@@ -661,6 +743,9 @@ function DashboardPage({ userId, notify, go }) {
           </div>
         </article>
       ))}
+      {nextCursor && (
+        <button className="small" onClick={() => loadJobs(nextCursor)}>Load more jobs</button>
+      )}
       {editingJob && (
         <div className="modal-backdrop">
           <form className="panel modal" onSubmit={updateJob}>
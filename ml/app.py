@@ -1,4 +1,5 @@
 from fastapi import FastAPI, HTTPException
+from fastapi.responses import FileResponse
 from pydantic import BaseModel
 import numpy as np
 import pandas as pd
@@ -52,6 +53,7 @@ JOB_META_PATH = os.path.join(MODEL_DIR, 'jobs.parquet')
 JOB_EMB_PATH = os.path.join(MODEL_DIR, 'job_emb.npy')
 RERANKER_PATH = os.path.join(MODEL_DIR, 'reranker.joblib')
 RERANKER_PT = os.path.join(MODEL_DIR, 'reranker.pt')
+RERANKER_BIN = os.path.join(MODEL_DIR, 'reranker.bin')
 FAISS_INDEX_DIR = os.path.join(MODEL_DIR, 'job_index')
 EMB_MODEL_NAME = 'all-MiniLM-L6-v2'
 
@@ -143,6 +145,13 @@ class RecommendRequest(BaseModel):
     profile: Optional[dict] = None
     query: Optional[str] = None
     top_k: int = 10
+    # Optional prefiltered candidates from the Java candidate-generation stage; when given, only
+    # these jobs are scored
+    candidate_job_ids: Optional[List[int]] = None
+
+
+class RecommendBatchRequest(BaseModel):
+    requests: List[RecommendRequest]
 
 
 class JobItem(BaseModel):
@@ -157,8 +166,12 @@ class JobItem(BaseModel):
 
 
 class UploadJobsRequest(BaseModel):
-    jobs: List[dict]
+    jobs: List[dict] = []
     train_reranker: Optional[bool] = False
+    # replace=False merges the given jobs into the current corpus by job_id (outbox batches);
+    # the default replaces the corpus, as the full sync script expects
+    replace: Optional[bool] = True
+    delete_job_ids: Optional[List[int]] = None
 
 
 class LlmRecommendationRequest(BaseModel):
@@ -239,14 +252,7 @@ def _normalize_job_payload(j: Dict[str, Any], i: int) -> Dict[str, Any]:
     return row
 
 
-@app.post('/recommend')
-def recommend(req: RecommendRequest):
-    if jobs is None or job_embeddings is None or embedder is None:
-        raise HTTPException(status_code=503, detail='Model artifacts not available. Run upload/build first.')
-
-    set_user = set()
-    skills_provided = False
-
+def _profile_text(req: RecommendRequest) -> Optional[str]:
     profile_text = None
     if req.user_profile_text:
         profile_text = req.user_profile_text
@@ -264,12 +270,78 @@ def recommend(req: RecommendRequest):
         profile_text = ' '.join(parts).strip()
     elif req.query:
         profile_text = req.query
+    return profile_text
+
+
+def _require_artifacts():
+    if jobs is None or job_embeddings is None or embedder is None:
+        raise HTTPException(status_code=503, detail='Model artifacts not available. Run upload/build first.')
+
+
+_job_rows_cache = (None, {})
+
+
+def _job_rows() -> Dict[int, int]:
+    """job_id -> row in jobs / job_embeddings, rebuilt when the corpus is replaced."""
+    global _job_rows_cache
+    if _job_rows_cache[0] is not jobs:
+        rows = {}
+        if jobs is not None and 'job_id' in jobs.columns:
+            rows = {int(jid): i for i, jid in enumerate(jobs['job_id'].tolist()) if not pd.isna(jid)}
+        _job_rows_cache = (jobs, rows)
+    return _job_rows_cache[1]
+
+
+@app.post('/recommend')
+def recommend(req: RecommendRequest):
+    _require_artifacts()
 
+    profile_text = _profile_text(req)
     if not profile_text or profile_text.strip() == '':
         raise HTTPException(status_code=400, detail='user_profile_text/profile/query required')
 
     user_emb = embedder.encode([profile_text], convert_to_numpy=True)
-    sims = cosine_similarity(user_emb, job_embeddings)[0]
+    return _recommend_for(req, profile_text, user_emb)
+
+
+@app.post('/recommend_batch')
+def recommend_batch(req: RecommendBatchRequest):
+    """Score many users in one call: profiles are embedded in a single encoder batch and each
+    request is then ranked as /recommend would. Results are returned in request order; a request
+    that cannot be served gets an {'error': ...} entry instead of failing the whole batch."""
+    _require_artifacts()
+
+    texts = [_profile_text(r) for r in req.requests]
+    valid = [i for i, t in enumerate(texts) if t and t.strip()]
+    results: List[Dict[str, Any]] = [{'error': 'user_profile_text/profile/query required'} for _ in req.requests]
+    if valid:
+        embs = embedder.encode([texts[i] for i in valid], convert_to_numpy=True)
+        for k, i in enumerate(valid):
+            try:
+                results[i] = _recommend_for(req.requests[i], texts[i], embs[k:k + 1])
+            except Exception as e:
+                results[i] = {'error': str(e)}
+    return {'results': results, 'model_version': 'prototype-v2-rag'}
+
+
+def _recommend_for(req: RecommendRequest, profile_text: str, user_emb):
+    set_user = set()
+    skills_provided = False
+
+    # When the caller prefiltered the catalog, only the candidate rows are scored: sims[p] is the
+    # similarity of row rows[p], and pos_of maps a corpus row back to its position p
+    job_rows = _job_rows()
+    if req.candidate_job_ids:
+        rows = list(dict.fromkeys(job_rows[int(j)] for j in req.candidate_job_ids if int(j) in job_rows))
+        if not rows:
+            return {'recommendations': [], 'model_version': 'prototype-v2-rag'}
+        rows = np.asarray(rows, dtype=int)
+        pos_of = {int(r): p for p, r in enumerate(rows)}
+        sims = cosine_similarity(user_emb, job_embeddings[rows])[0]
+    else:
+        rows = np.arange(len(jobs))
+        pos_of = None
+        sims = cosine_similarity(user_emb, job_embeddings)[0]
 
     if req.profile and isinstance(req.profile, dict):
         sk = req.profile.get('skills')
@@ -285,45 +357,44 @@ def recommend(req: RecommendRequest):
 
     top_idx = np.argsort(-sims)[:req.top_k]
 
-    # RAG candidate generation from FAISS (if available)
+    # RAG candidate generation from FAISS (if available), kept to the candidate rows
     if vectorstore is not None:
         try:
             docs = vectorstore.similarity_search(profile_text, k=max(req.top_k, 30))
             rag_job_ids = [int(d.metadata.get('job_id', -1)) for d in docs if d.metadata.get('job_id') is not None]
-            if len(rag_job_ids) > 0:
-                id_to_idx = {}
-                for i, row in jobs.iterrows():
-                    try:
-                        id_to_idx[int(row.get('job_id', -1))] = i
-                    except Exception:
-                        continue
-                mapped = [id_to_idx[jid] for jid in rag_job_ids if jid in id_to_idx]
-                if len(mapped) > 0:
-                    mapped = sorted(mapped, key=lambda i: -float(sims[i]))
-                    top_idx = np.array(mapped[:max(req.top_k, 30)])
+            mapped = []
+            for jid in rag_job_ids:
+                r = job_rows.get(jid)
+                p = r if pos_of is None else pos_of.get(r)
+                if p is not None:
+                    mapped.append(p)
+            if len(mapped) > 0:
+                mapped = sorted(set(mapped), key=lambda i: -float(sims[i]))
+                top_idx = np.array(mapped[:max(req.top_k, 30)])
         except Exception as e:
             print('RAG retrieval fallback to embedding argsort due to:', e)
 
     if skills_provided:
         overlap_indices = []
-        for i, row in jobs.iterrows():
+        for p, (_, row) in enumerate(jobs.iloc[rows].iterrows()):
             job_skills = '' if pd.isna(row.get('Required Skills', '')) else str(row.get('Required Skills', ''))
             set_job = set([s.strip().lower() for s in job_skills.split(',') if s.strip()])
             if len(set_user & set_job) > 0:
-                overlap_indices.append(i)
+                overlap_indices.append(p)
         if len(overlap_indices) > 0:
             overlap_sims = [(i, float(sims[i])) for i in overlap_indices]
             overlap_sims_sorted = sorted(overlap_sims, key=lambda x: -x[1])[:max(req.top_k, 1000)]
             top_idx = np.array([i for i, _ in overlap_sims_sorted])[:max(req.top_k, 30)]
 
     candidates = []
-    for idx in top_idx:
+    for p in top_idx:
+        idx = int(rows[p])
         row = jobs.iloc[idx]
         job_skills = '' if pd.isna(row.get('Required Skills', '')) else str(row.get('Required Skills', ''))
         set_job = set([s.strip().lower() for s in job_skills.split(',') if s.strip()])
         overlap = len(set_user & set_job) / max(1, len(set_job)) if len(set_job) > 0 else 0.0
-        embed_cos = float(sims[idx])
-        candidates.append({'idx': int(idx), 'embed_cos': embed_cos, 'skill_overlap': overlap})
+        embed_cos = float(sims[p])
+        candidates.append({'idx': idx, 'embed_cos': embed_cos, 'skill_overlap': overlap})
 
     if skills_provided:
         filtered = [c for c in candidates if c['skill_overlap'] > 0]
@@ -632,13 +703,83 @@ Thought:{agent_scratchpad}
     }
 
 
+def _train_reranker(df: pd.DataFrame, embs):
+    """Fit the light sklearn reranker on synthetic pairs sampled from the current corpus."""
+    global reranker
+    from sklearn.model_selection import train_test_split
+    from sklearn.linear_model import LogisticRegression
+
+    feature_rows = []
+    labels = []
+    for idx, row in df.sample(min(500, len(df))).iterrows():
+        skills = str(row.get('Required Skills', ''))
+        if not skills:
+            continue
+        user_emb = embedder.encode([skills], convert_to_numpy=True)[0]
+        cand_idx = np.random.choice(len(df), size=min(20, len(df)), replace=False)
+        for j in cand_idx:
+            job_emb = embs[j]
+            cos = float(np.dot(user_emb, job_emb) / (np.linalg.norm(user_emb) * np.linalg.norm(job_emb) + 1e-9))
+            job_skills = str(df.iloc[j].get('Required Skills', ''))
+            set_a = set([s.strip().lower() for s in skills.split(',') if s.strip()])
+            set_b = set([s.strip().lower() for s in job_skills.split(',') if s.strip()])
+            overlap = len(set_a & set_b) / max(1, len(set_b)) if len(set_b) > 0 else 0.0
+            feature_rows.append({'embed_cos': cos, 'skill_overlap': overlap})
+            labels.append(1 if (cos > 0.6 or overlap > 0.5) else 0)
+
+    if len(labels) < 50:
+        return False
+    X = pd.DataFrame(feature_rows)
+    y = np.array(labels)
+    X_train, X_val, y_train, y_val = train_test_split(X, y, test_size=0.2, random_state=42)
+    clf = LogisticRegression(max_iter=200)
+    clf.fit(X_train, y_train)
+    joblib.dump(clf, RERANKER_PATH)
+    reranker = clf
+    try:
+        _train_mlp(X, y)
+    except Exception as e:
+        print('MLP reranker training failed:', e)
+    return True
+
+
+def _train_mlp(X: pd.DataFrame, y) -> bool:
+    """Train the MLP on the same features and export reranker.bin for the Java service's in-process reranker."""
+    if not TORCH_AVAILABLE:
+        return False
+    try:
+        from retrain_reranker import SimpleMLP, export_reranker_bin
+    except ImportError:
+        from ml.retrain_reranker import SimpleMLP, export_reranker_bin
+    model = SimpleMLP(X.shape[1])
+    criterion = nn.BCELoss()
+    optimizer = torch.optim.Adam(model.parameters(), lr=1e-3)
+    dataset = torch.utils.data.TensorDataset(
+        torch.tensor(X.values, dtype=torch.float32),
+        torch.tensor(np.asarray(y).reshape(-1, 1), dtype=torch.float32))
+    loader = torch.utils.data.DataLoader(dataset, batch_size=256, shuffle=True)
+    for _ in range(10):
+        model.train()
+        for xb, yb in loader:
+            optimizer.zero_grad()
+            loss = criterion(model(xb), yb)
+            loss.backward()
+            optimizer.step()
+    torch.save(model.state_dict(), RERANKER_PT)
+    export_reranker_bin(model, RERANKER_BIN)
+    return True
+
+
 @app.post('/upload_jobs')
 def upload_jobs(payload: UploadJobsRequest):
     if embedder is None:
         raise HTTPException(status_code=503, detail='Embedder not loaded')
 
-    jobs_list = payload.jobs
-    if not isinstance(jobs_list, list) or len(jobs_list) == 0:
+    global jobs, job_embeddings
+    jobs_list = payload.jobs or []
+    delete_ids = set(int(j) for j in (payload.delete_job_ids or []))
+    merge = payload.replace is False
+    if not isinstance(jobs_list, list) or (len(jobs_list) == 0 and not (merge and delete_ids)):
         raise HTTPException(status_code=400, detail='jobs must be a non-empty list')
 
     with _upload_lock:
@@ -646,11 +787,26 @@ def upload_jobs(payload: UploadJobsRequest):
         df = pd.DataFrame(rows)
 
         try:
-            texts = df['job_text'].tolist()
-            embs = embedder.encode(texts, show_progress_bar=False, convert_to_numpy=True)
+            texts = df['job_text'].tolist() if len(df) > 0 else []
+            embs = embedder.encode(texts, show_progress_bar=False, convert_to_numpy=True) if texts else None
         except Exception as e:
             raise HTTPException(status_code=500, detail=f'Embedding computation failed: {e}')
 
+        if merge and jobs is not None and job_embeddings is not None and 'job_id' in jobs.columns:
+            # Drop rows being replaced or deleted, then append the new rows
+            drop = delete_ids | set(int(r['job_id']) for r in rows)
+            keep = [i for i, jid in enumerate(jobs['job_id'].tolist()) if pd.isna(jid) or int(jid) not in drop]
+            kept_df = jobs.iloc[keep].reset_index(drop=True)
+            kept_embs = job_embeddings[keep]
+            if embs is not None:
+                df = pd.concat([kept_df, df], ignore_index=True)
+                embs = np.vstack([kept_embs, embs]) if len(kept_embs) > 0 else embs
+            else:
+                df, embs = kept_df, kept_embs
+
+        if embs is None or len(df) == 0:
+            raise HTTPException(status_code=400, detail='Resulting corpus would be empty')
+
         try:
             os.makedirs(MODEL_DIR, exist_ok=True)
             df.to_parquet(JOB_META_PATH, index=False)
@@ -659,43 +815,36 @@ def upload_jobs(payload: UploadJobsRequest):
         except Exception as e:
             raise HTTPException(status_code=500, detail=f'Failed to save artifacts: {e}')
 
-        global jobs, job_embeddings
         jobs = df
         job_embeddings = embs
 
         if payload.train_reranker:
             try:
-                from sklearn.model_selection import train_test_split
-                from sklearn.linear_model import LogisticRegression
-
-                feature_rows = []
-                labels = []
-                for idx, row in df.sample(min(500, len(df))).iterrows():
-                    skills = str(row.get('Required Skills', ''))
-                    if not skills:
-                        continue
-                    user_emb = embedder.encode([skills], convert_to_numpy=True)[0]
-                    cand_idx = np.random.choice(len(df), size=min(20, len(df)), replace=False)
-                    for j in cand_idx:
-                        job_emb = embs[j]
-                        cos = float(np.dot(user_emb, job_emb) / (np.linalg.norm(user_emb) * np.linalg.norm(job_emb) + 1e-9))
-                        job_skills = str(df.iloc[j].get('Required Skills', ''))
-                        set_a = set([s.strip().lower() for s in skills.split(',') if s.strip()])
-                        set_b = set([s.strip().lower() for s in job_skills.split(',') if s.strip()])
-                        overlap = len(set_a & set_b) / max(1, len(set_b)) if len(set_b) > 0 else 0.0
-                        feature_rows.append({'embed_cos': cos, 'skill_overlap': overlap})
-                        labels.append(1 if (cos > 0.6 or overlap > 0.5) else 0)
-
-                if len(labels) >= 50:
-                    X = pd.DataFrame(feature_rows)
-                    y = np.array(labels)
-                    X_train, X_val, y_train, y_val = train_test_split(X, y, test_size=0.2, random_state=42)
-                    clf = LogisticRegression(max_iter=200)
-                    clf.fit(X_train, y_train)
-                    joblib.dump(clf, RERANKER_PATH)
-                    global reranker
-                    reranker = clf
+                _train_reranker(df, embs)
             except Exception as e:
                 print('Reranker training failed during upload:', e)
 
     return {'status': 'ok', 'jobs_count': len(df), 'model_version': 'uploaded-v2-rag'}
+
+
+@app.post('/retrain_reranker')
+def retrain_reranker_endpoint():
+    """Retrain the light reranker on the current corpus (called at most once per window by the Java outbox dispatcher)."""
+    if embedder is None or jobs is None or job_embeddings is None:
+        raise HTTPException(status_code=503, detail='Model artifacts not available')
+    with _upload_lock:
+        try:
+            trained = _train_reranker(jobs, job_embeddings)
+        except Exception as e:
+            raise HTTPException(status_code=500, detail=f'Reranker training failed: {e}')
+    # reranker_bin_mtime tells the Java service whether to fetch new in-process weights
+    bin_mtime = os.path.getmtime(RERANKER_BIN) if os.path.exists(RERANKER_BIN) else None
+    return {'status': 'ok' if trained else 'skipped', 'jobs_count': len(jobs), 'reranker_bin_mtime': bin_mtime}
+
+
+@app.get('/reranker_weights')
+def reranker_weights():
+    """The exported MLP weights (reranker.bin) for the Java in-process reranker."""
+    if not os.path.exists(RERANKER_BIN):
+        raise HTTPException(status_code=404, detail='reranker.bin not found')
+    return FileResponse(RERANKER_BIN, media_type='application/octet-stream')
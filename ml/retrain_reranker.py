@@ -2,9 +2,16 @@
 
 This script builds a synthetic training set from actual DB jobs and trains a LogisticRegression
 or LGBMClassifier depending on availability. It saves reranker.joblib (sklearn) and optionally
-reranker.pt (PyTorch) to ml/artifacts.
+reranker.pt (PyTorch) to ml/artifacts. The PyTorch MLP is also exported to reranker.bin, a flat
+little-endian format the Java service loads for in-process reranking (see MlpReranker.java).
+
+Usage:
+  python ml/retrain_reranker.py                 # retrain and export
+  python ml/retrain_reranker.py --export-only   # convert an existing reranker.pt to reranker.bin
 """
 import os
+import struct
+import sys
 import pandas as pd
 import numpy as np
 import joblib
@@ -18,6 +25,7 @@ JOB_PARQUET = os.path.join(ARTIFACTS, 'jobs.parquet')
 JOB_EMB = os.path.join(ARTIFACTS, 'job_emb.npy')
 RERANKER_PATH = os.path.join(ARTIFACTS, 'reranker.joblib')
 RERANKER_PT = os.path.join(ARTIFACTS, 'reranker.pt')
+RERANKER_BIN = os.path.join(ARTIFACTS, 'reranker.bin')
 
 try:
     import lightgbm as lgb
@@ -33,7 +41,48 @@ try:
 except Exception:
     TORCH_AVAILABLE = False
 
+if TORCH_AVAILABLE:
+    class SimpleMLP(nn.Module):
+        def __init__(self, in_dim):
+            super().__init__()
+            self.net = nn.Sequential(
+                nn.Linear(in_dim,32), nn.ReLU(), nn.Linear(32,16), nn.ReLU(), nn.Linear(16,1), nn.Sigmoid()
+            )
+        def forward(self,x):
+            return self.net(x)
+
+
+def export_reranker_bin(model, path):
+    """Write the MLP's Linear layers to a flat binary file.
+
+    Layout (little-endian): magic b'RRK1', int32 layer count, then per layer int32 in_dim,
+    int32 out_dim, out_dim*in_dim float32 weights (row-major, PyTorch layout), out_dim float32 bias.
+    Hidden layers use ReLU and the last layer uses a sigmoid, matching SimpleMLP.
+    """
+    linears = [m for m in model.net if isinstance(m, nn.Linear)]
+    tmp = path + '.tmp'
+    with open(tmp, 'wb') as f:
+        f.write(b'RRK1')
+        f.write(struct.pack('<i', len(linears)))
+        for layer in linears:
+            w = layer.weight.detach().cpu().numpy().astype('<f4')
+            b = layer.bias.detach().cpu().numpy().astype('<f4')
+            f.write(struct.pack('<ii', w.shape[1], w.shape[0]))
+            f.write(np.ascontiguousarray(w).tobytes())
+            f.write(b.tobytes())
+    os.replace(tmp, path)
+    print('Saved', path)
+
+
 if __name__ == '__main__':
+    if '--export-only' in sys.argv:
+        if not TORCH_AVAILABLE or not os.path.exists(RERANKER_PT):
+            raise SystemExit('PyTorch and an existing reranker.pt are required for --export-only')
+        model = SimpleMLP(2)
+        model.load_state_dict(torch.load(RERANKER_PT, map_location='cpu'))
+        export_reranker_bin(model, RERANKER_BIN)
+        raise SystemExit(0)
+
     # Prefer serving artifacts, but fall back to training artifacts if serving set is too small
     use_train = False
     if not os.path.exists(JOB_PARQUET) or not os.path.exists(JOB_EMB):
@@ -109,14 +158,6 @@ if __name__ == '__main__':
     if TORCH_AVAILABLE:
         try:
             import numpy as _np
-            class SimpleMLP(nn.Module):
-                def __init__(self, in_dim):
-                    super().__init__()
-                    self.net = nn.Sequential(
-                        nn.Linear(in_dim,32), nn.ReLU(), nn.Linear(32,16), nn.ReLU(), nn.Linear(16,1), nn.Sigmoid()
-                    )
-                def forward(self,x):
-                    return self.net(x)
             X_all = _np.vstack([X_train.values, X_val.values])
             y_all = np.concatenate([y_train, y_val])
             model = SimpleMLP(X_train.shape[1])
@@ -141,5 +182,6 @@ if __name__ == '__main__':
                 print('Epoch', epoch+1, 'loss', total/len(dataset))
             torch.save(model.state_dict(), RERANKER_PT)
             print('Saved', RERANKER_PT)
+            export_reranker_bin(model, RERANKER_BIN)
         except Exception as e:
             print('PyTorch training failed', e)
\ No newline at end of file
@@ -3,19 +3,43 @@
 Usage:
   python scripts/sync_jobs_from_api.py --api http://127.0.0.1:8080 --ml http://127.0.0.1:8000 --train-reranker
 
-This script fetches /api/jobs from the Java app, transforms each Job into the expected
-job dict format, and posts them to the ML service /upload_jobs endpoint.
+This script reads the /api/jobs/changes feed from the Java app starting at the cursor saved by the
+previous run, transforms each changed Job into the expected job dict format, and merges the changes
+into the ML service corpus via /upload_jobs (replace=false, with deletes as delete_job_ids).
+The first run (or --full) starts at cursor 0 and replaces the ML corpus instead.
 """
 import argparse
+import os
 import requests
 import sys
 
 
-def fetch_jobs(api_url):
-    url = api_url.rstrip('/') + '/api/jobs'
-    resp = requests.get(url, timeout=10)
-    resp.raise_for_status()
-    return resp.json()
+def fetch_changes(api_url, since, page_size=500):
+    """Yield pages of (changes, next_cursor) from /api/jobs/changes until caught up."""
+    url = api_url.rstrip('/') + '/api/jobs/changes'
+    while True:
+        resp = requests.get(url, params={'since': since, 'limit': page_size}, timeout=30)
+        resp.raise_for_status()
+        body = resp.json()
+        since = body.get('nextCursor', since)
+        yield body.get('changes') or [], since
+        if not body.get('hasMore'):
+            break
+
+
+def read_cursor(path):
+    try:
+        with open(path) as f:
+            return int(f.read().strip() or 0)
+    except (OSError, ValueError):
+        return 0
+
+
+def write_cursor(path, cursor):
+    tmp = path + '.tmp'
+    with open(tmp, 'w') as f:
+        f.write(str(cursor))
+    os.replace(tmp, path)
 
 
 def transform_job(j):
@@ -32,9 +56,10 @@ def transform_job(j):
     }
 
 
-def upload_jobs(ml_url, jobs, train_reranker=False):
+def upload_jobs(ml_url, jobs, train_reranker=False, replace=True, delete_job_ids=None):
     url = ml_url.rstrip('/') + '/upload_jobs'
-    payload = {'jobs': jobs, 'train_reranker': bool(train_reranker)}
+    payload = {'jobs': jobs, 'train_reranker': bool(train_reranker), 'replace': bool(replace),
+               'delete_job_ids': delete_job_ids or []}
     resp = requests.post(url, json=payload, timeout=60)
     resp.raise_for_status()
     return resp.json()
@@ -45,29 +70,55 @@ def main():
     p.add_argument('--api', default='http://127.0.0.1:8080', help='Base URL of Spring Boot API')
     p.add_argument('--ml', default='http://127.0.0.1:8000', help='Base URL of ML service')
     p.add_argument('--train-reranker', action='store_true', help='Ask ML service to train a light reranker (optional)')
+    p.add_argument('--cursor-file', default='.jobs_sync_cursor', help='Where the last synced change sequence is kept')
+    p.add_argument('--full', action='store_true', help='Ignore the saved cursor and resync the whole catalog')
     args = p.parse_args()
 
+    since = 0 if args.full else read_cursor(args.cursor_file)
+    full = since == 0
+    print(f'Reading job changes from {args.api}/api/jobs/changes since {since}' + (' (full sync)' if full else ''))
+
+    # Latest change per job wins; a full sync is collected first so it replaces the corpus in one call
+    upserts, deletes = {}, set()
+    cursor = since
     try:
-        print(f'Fetching jobs from {args.api}/api/jobs')
-        jobs = fetch_jobs(args.api)
+        for changes, cursor in fetch_changes(args.api, since):
+            for c in changes:
+                job_id = c.get('jobId')
+                if c.get('type') == 'DELETE':
+                    upserts.pop(job_id, None)
+                    deletes.add(job_id)
+                elif c.get('job') is not None:
+                    deletes.discard(job_id)
+                    upserts[job_id] = c['job']
     except Exception as e:
-        print('Failed to fetch jobs from API:', e)
+        print('Failed to fetch job changes from API:', e)
         sys.exit(2)
 
-    if not isinstance(jobs, list):
-        print('Unexpected response from API: expected a list of jobs')
-        sys.exit(3)
+    if cursor == since:
+        print('No job changes since last sync')
+        return
 
-    transformed = [transform_job(j) for j in jobs]
-    print(f'Fetched {len(transformed)} jobs; uploading to ML at {args.ml}/upload_jobs')
+    # Closed jobs stay out of the recommender corpus
+    for job_id, j in list(upserts.items()):
+        if j.get('status') == 'CLOSED':
+            upserts.pop(job_id)
+            deletes.add(job_id)
+
+    transformed = [transform_job(j) for j in upserts.values()]
+    print(f'{len(transformed)} upserts, {len(deletes)} deletes; uploading to ML at {args.ml}/upload_jobs')
 
     try:
-        resp = upload_jobs(args.ml, transformed, train_reranker=args.train_reranker)
+        resp = upload_jobs(args.ml, transformed, train_reranker=args.train_reranker,
+                           replace=full, delete_job_ids=[] if full else sorted(deletes))
         print('ML upload response:', resp)
     except Exception as e:
         print('Failed to upload jobs to ML:', e)
         sys.exit(4)
 
+    write_cursor(args.cursor_file, cursor)
+    print(f'Synced up to change {cursor}')
+
 
 if __name__ == '__main__':
     main()
@@ -1,18 +1,36 @@
 package com.example.smartjobsearch.controller;
 
 import com.example.smartjobsearch.model.AppliedJob;
+import com.example.smartjobsearch.model.AppliedJobView;
 import com.example.smartjobsearch.model.Job;
 import com.example.smartjobsearch.model.User;
+import com.example.smartjobsearch.security.JwtService;
+import com.example.smartjobsearch.service.ApplicantRankCursor;
+import com.example.smartjobsearch.service.ApplicationAnalyticsService;
+import com.example.smartjobsearch.service.ApplicationCursor;
+import com.example.smartjobsearch.service.ApplicationEventBus;
 import com.example.smartjobsearch.service.AppliedJobService;
+import com.example.smartjobsearch.service.AppliedJobViewService;
+import com.example.smartjobsearch.service.EmployerDashboardService;
 import com.example.smartjobsearch.service.JobService;
+import com.example.smartjobsearch.service.ResumeStore;
 import com.example.smartjobsearch.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.util.StringUtils;
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -20,22 +38,64 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/applied-jobs")
 public class AppliedJobsController {
-    
+
+    private static final Set<String> BULK_STATUSES = Set.of("Pending", "Accepted", "Rejected");
+
     private final AppliedJobService appliedJobService;
     private final JobService jobService;
     private final UserService userService;
+    private final ApplicationAnalyticsService applicationAnalyticsService;
+    private final EmployerDashboardService employerDashboardService;
+    private final AppliedJobViewService appliedJobViewService;
+    private final ApplicationEventBus applicationEventBus;
+    private final ResumeStore resumeStore;
+    private final JwtService jwtService;
 
     @Autowired
-    public AppliedJobsController(AppliedJobService appliedJobService, JobService jobService, UserService userService) {
+    public AppliedJobsController(AppliedJobService appliedJobService, JobService jobService, UserService userService,
+                                 ApplicationAnalyticsService applicationAnalyticsService,
+                                 EmployerDashboardService employerDashboardService,
+                                 AppliedJobViewService appliedJobViewService,
+                                 ApplicationEventBus applicationEventBus, ResumeStore resumeStore,
+                                 JwtService jwtService) {
         this.appliedJobService = appliedJobService;
         this.jobService = jobService;
         this.userService = userService;
+        this.applicationAnalyticsService = applicationAnalyticsService;
+        this.employerDashboardService = employerDashboardService;
+        this.appliedJobViewService = appliedJobViewService;
+        this.applicationEventBus = applicationEventBus;
+        this.resumeStore = resumeStore;
+        this.jwtService = jwtService;
     }
 
+    // Ranked (default): applicants by match score, best first. sort=recent: newest first. Both come in
+    // keyset pages of `limit`, with the next page's cursor in the X-Next-Cursor header.
     @GetMapping("/view-applications/{jobId}")
-    public ResponseEntity<List<?>> viewApplications(@PathVariable Long jobId) {
-        List<?> applications = appliedJobService.findByJobId(jobId);
-        return ResponseEntity.ok(applications);
+    public ResponseEntity<?> viewApplications(@PathVariable Long jobId,
+                                              @RequestParam(required = false) String status,
+                                              @RequestParam(defaultValue = "rank") String sort,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "100") int limit) {
+        int n = Math.max(1, Math.min(limit, 500));
+        try {
+            List<AppliedJob> applications;
+            String nextCursor = null;
+            if ("recent".equals(sort)) {
+                AppliedJobService.ApplicationPage page = appliedJobService.findPageByJob(jobId, status, ApplicationCursor.decode(cursor), n);
+                applications = page.applications();
+                if (page.nextCursor() != null) nextCursor = page.nextCursor().encode();
+            } else {
+                AppliedJobService.RankedPage page = appliedJobService.findByJobIdRanked(jobId, status, ApplicantRankCursor.decode(cursor), n);
+                applications = page.applications();
+                if (page.nextCursor() != null) nextCursor = page.nextCursor().encode();
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (nextCursor != null) response.header("X-Next-Cursor", nextCursor);
+            return response.body(applications);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @PostMapping(value = "/apply", consumes = {"multipart/form-data"})
@@ -72,30 +132,12 @@ public class AppliedJobsController {
                 return ResponseEntity.badRequest().body(Map.of("error", "You cannot apply to your own posted job"));
             }
 
-            // Check if user already applied
-            List<AppliedJob> existingApplications = appliedJobService.findByJobId(jobId);
-            boolean alreadyApplied = existingApplications.stream()
-                .anyMatch(app -> app.getUserId().equals(userId));
-
-            if (alreadyApplied) {
-                return ResponseEntity.badRequest().body(Map.of("error", "You have already applied for this job"));
-            }
-
-            // Save resume file if present
-            String resumePath = null;
-            if (resumeFile != null && !resumeFile.isEmpty()) {
-                // Use absolute path based on project root
-                String projectRoot = System.getProperty("user.dir");
-                String uploadDir = projectRoot + File.separator + "uploads" + File.separator + "resumes" + File.separator;
-                File dir = new File(uploadDir);
-                if (!dir.exists()) dir.mkdirs();
-                String fileName = System.currentTimeMillis() + "_" + StringUtils.cleanPath(resumeFile.getOriginalFilename());
-                File dest = new File(uploadDir + fileName);
-                resumeFile.transferTo(dest);
-                resumePath = dest.getAbsolutePath();
+            // Index probe for the common case; the unique (userId, jobId) constraint settles concurrent submits
+            if (appliedJobService.hasApplied(userId, jobId)) {
+                return ResponseEntity.status(409).body(Map.of("error", "You have already applied for this job"));
             }
 
-            // Create application
+            // Create application (reserves the slot before any file is written)
             AppliedJob application = new AppliedJob();
             application.setUserId(user.getId());
             application.setJobId(job.getId());
@@ -103,14 +145,32 @@ public class AppliedJobsController {
             application.setCompany(job.getCompany());
             application.setStatus("Pending");
             application.setAppliedAt(LocalDateTime.now());
-            application.setResumePath(resumePath);
 
-            AppliedJob savedApplication = appliedJobService.save(application);
+            AppliedJob savedApplication;
+            try {
+                savedApplication = appliedJobService.save(application);
+            } catch (DataIntegrityViolationException e) {
+                return ResponseEntity.status(409).body(Map.of("error", "You have already applied for this job"));
+            }
+
+            // Store the resume (content-addressed, shared with identical uploads) once the slot is reserved
+            String resumeKey = null;
+            if (resumeFile != null && !resumeFile.isEmpty()) {
+                try (InputStream in = resumeFile.getInputStream()) {
+                    resumeKey = resumeStore.store(in);
+                    appliedJobService.updateResume(savedApplication.getId(), resumeKey, StringUtils.cleanPath(resumeFile.getOriginalFilename()));
+                } catch (IOException | RuntimeException e) {
+                    // Give the slot back so the user can retry, and drop the stored body's reference
+                    appliedJobService.deleteById(savedApplication.getId());
+                    if (resumeKey != null) resumeStore.release(resumeKey);
+                    throw e;
+                }
+            }
 
             return ResponseEntity.ok().body(Map.of(
                 "message", "Application submitted successfully",
                 "application_id", savedApplication.getId(),
-                "resumePath", resumePath != null ? resumePath : ""
+                "resumeKey", resumeKey != null ? resumeKey : ""
             ));
 
         } catch (IOException e) {
@@ -121,37 +181,34 @@ public class AppliedJobsController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getAppliedJobs(@RequestParam Long userId) {
+    public ResponseEntity<?> getAppliedJobs(@RequestParam Long userId,
+                                            @RequestParam(required = false) String status,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<AppliedJob> applications = appliedJobService.findByUserId(userId)
-                .stream()
-                .filter(app -> !"Accepted".equalsIgnoreCase(app.getStatus())) // Exclude approved jobs
-                .collect(Collectors.toList());
+            // Served from the applied-jobs read model; without a status filter approved jobs are excluded.
+            // A cursor (next_cursor of the previous response) pages by keyset instead of page number.
+            int n = Math.max(1, Math.min(size, 500));
+            AppliedJobViewService.AppliedPage applied =
+                appliedJobViewService.findApplied(userId, status, ApplicationCursor.decode(cursor), Math.max(0, page), n);
+            ApplicationCursor next = applied.nextCursor();
             List<Map<String, Object>> result = new ArrayList<>();
-            for (AppliedJob app : applications) {
+            for (AppliedJobView view : applied.views()) {
                 Map<String, Object> appMap = new HashMap<>();
-                appMap.put("application_id", app.getId());
-                appMap.put("job_id", app.getJobId());
-                // Fetch full job details
-                Optional<Job> jobOpt = jobService.getJobById(app.getJobId());
-                if (jobOpt.isPresent()) {
-                    Job job = jobOpt.get();
-                    appMap.put("title", job.getTitle());
-                    appMap.put("company", job.getCompany());
-                    appMap.put("location", job.getLocation());
-                    appMap.put("salary", job.getSalary());
-                } else {
-                    appMap.put("title", app.getJobTitle());
-                    appMap.put("company", app.getCompany());
-                    appMap.put("location", "N/A");
-                    appMap.put("salary", null);
-                }
-                appMap.put("status", app.getStatus());
-                appMap.put("applied_at", app.getAppliedAt() != null ? app.getAppliedAt().toString() : "");
+                appMap.put("application_id", view.getApplicationId());
+                appMap.put("job_id", view.getJobId());
+                appMap.put("title", view.getJobTitle());
+                appMap.put("company", view.getCompany());
+                appMap.put("location", view.isJobDeleted() ? "N/A" : view.getLocation());
+                appMap.put("salary", view.isJobDeleted() ? null : view.getSalary());
+                appMap.put("status", view.getStatus());
+                appMap.put("applied_at", view.getAppliedAt() != null ? view.getAppliedAt().toString() : "");
                 result.add(appMap);
             }
             Map<String, Object> response = new HashMap<>();
             response.put("jobs", result);
+            response.put("next_cursor", next != null ? next.encode() : null);
             return ResponseEntity.ok().body(response);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -166,40 +223,18 @@ public class AppliedJobsController {
             if (request.applicationId == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Application ID is required"));
             }
-            
-            Optional<AppliedJob> applicationOpt = appliedJobService.findById(request.applicationId);
-            if (applicationOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Application not found"));
-            }
-            
-            AppliedJob application = applicationOpt.get();
-            
-            // Check if job belongs to the requesting user (should validate job owner)
-            Optional<Job> jobOpt = jobService.getJobById(application.getJobId());
-            if (jobOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Job not found"));
-            }
-            
-            // Update application status
-            application.setStatus("Accepted");
-            appliedJobService.save(application);
 
-            // Close the job
-            Job job = jobOpt.get();
-            job.setStatus("CLOSED");
-            jobService.saveJob(job);
-            
-            // Reject other applications for the same job (only one can be accepted)
-            List<AppliedJob> otherApplications = appliedJobService.findByJobId(application.getJobId());
-            for (AppliedJob otherApp : otherApplications) {
-                if (!otherApp.getId().equals(application.getId()) && "Pending".equals(otherApp.getStatus())) {
-                    otherApp.setStatus("Rejected");
-                    appliedJobService.save(otherApp);
-                }
-            }
-            
+            // Accepts the application, closes the job and rejects the other pending applications atomically
+            appliedJobService.approve(request.applicationId);
+
             return ResponseEntity.ok().body(Map.of("message", "Application approved successfully"));
-            
+
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "This job or application was changed by another request; reload and try again"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Approval failed: " + e.getMessage()));
         }
@@ -225,96 +260,97 @@ public class AppliedJobsController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Job not found"));
             }
             
-            application.setStatus("Rejected");
-            appliedJobService.save(application);
+            appliedJobService.updateStatus(application, "Rejected");
             
             return ResponseEntity.ok().body(Map.of("message", "Application rejected successfully"));
             
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "This application was changed by another request; reload and try again"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Rejection failed: " + e.getMessage()));
         }
     }
 
-    @GetMapping("/dashboard")
-    public ResponseEntity<?> dashboard(@RequestParam Long userId) {
+    // Employer triage: move many applications on the employer's own jobs to one status in a single call
+    @PostMapping("/bulk-status")
+    public ResponseEntity<?> bulkUpdateStatus(@RequestBody BulkStatusRequest request) {
+        if (request.userId == null || request.applicationIds == null || request.applicationIds.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "userId and applicationIds are required"));
+        }
+        if (request.applicationIds.size() > 1000) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most 1000 applications per request"));
+        }
+        if (request.status == null || !BULK_STATUSES.contains(request.status)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "status must be one of " + BULK_STATUSES));
+        }
         try {
-            // Get user's posted jobs
-            List<Job> postedJobs = jobService.getJobsByUser(userId);
-            
-            // Get applications for each job
-            List<Map<String, Object>> jobsWithApplications = new ArrayList<>();
-            
-            for (Job job : postedJobs) {
-                List<AppliedJob> applications = appliedJobService.findByJobId(job.getId());
-                
-                List<Map<String, Object>> applicants = applications.stream()
-                    .map(app -> {
-                        Optional<User> userOpt = userService.findById(app.getUserId());
-                        String username = userOpt.map(User::getUsername).orElse("Unknown");
-                        
-                        Map<String, Object> appMap = new HashMap<>();
-                        appMap.put("application_id", app.getId());
-                        appMap.put("username", username);
-                        appMap.put("status", app.getStatus());
-                        appMap.put("applied_at", app.getAppliedAt().toString());
-                        return appMap;
-                    })
-                    .collect(Collectors.toList());
-                
-                Map<String, Object> jobMap = new HashMap<>();
-                jobMap.put("job_id", job.getId());
-                jobMap.put("job_title", job.getTitle());
-                jobMap.put("company", job.getCompany());
-                jobMap.put("applicants", applicants);
-                jobsWithApplications.add(jobMap);
+            AppliedJobService.BulkStatusResult result =
+                appliedJobService.updateStatusBulk(request.userId, request.applicationIds, request.status);
+            if (!result.deniedIds().isEmpty()) {
+                return ResponseEntity.status(403).body(Map.of(
+                    "error", "Applications not found or not on your jobs",
+                    "application_ids", result.deniedIds()));
             }
-            
-            return ResponseEntity.ok().body(jobsWithApplications);
-            
+            return ResponseEntity.ok(Map.of("updated", result.updated(), "unchanged", result.unchanged()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "Some applications were changed by another request; reload and try again"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Bulk update failed: " + e.getMessage()));
+        }
+    }
+
+    // Server-sent events for the signed-in user's applications, as applicant and as employer
+    // (application_created, application_status). Clients refetch their lists on an event instead of polling.
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(Principal principal) {
+        Optional<User> user = principal != null ? userService.findByUsername(principal.getName()) : Optional.empty();
+        if (user.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+        SseEmitter emitter = applicationEventBus.subscribe(user.get().getId());
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+
+    // Browsers' EventSource cannot set an Authorization header: exchange the access token for a
+    // short-lived stream token and open /events?access_token=<token>
+    @PostMapping("/events/token")
+    public ResponseEntity<?> eventsToken(Principal principal) {
+        Optional<User> user = principal != null ? userService.findByUsername(principal.getName()) : Optional.empty();
+        if (user.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Authentication required"));
+        }
+        return ResponseEntity.ok(Map.of("token", jwtService.generateStreamToken(user.get().getId(), user.get().getUsername())));
+    }
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<?> dashboard(@RequestParam Long userId,
+                                       @RequestParam(required = false) Long cursor,
+                                       @RequestParam(required = false) String status,
+                                       @RequestParam(defaultValue = "0") int page,
+                                       @RequestParam(defaultValue = "50") int size,
+                                       @RequestParam(defaultValue = "50") int applicantsPerJob) {
+        try {
+            return postedApplicationsPage(userId, cursor, status, page, size, applicantsPerJob);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Dashboard load failed: " + e.getMessage()));
         }
     }
 
     @GetMapping("/posted-applications")
-    public ResponseEntity<?> getAllPostedApplications(@RequestParam Long userId) {
+    public ResponseEntity<?> getAllPostedApplications(@RequestParam Long userId,
+                                                      @RequestParam(required = false) Long cursor,
+                                                      @RequestParam(required = false) String status,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "50") int size,
+                                                      @RequestParam(defaultValue = "50") int applicantsPerJob) {
         try {
-            // Get all jobs posted by the user
-            List<Job> userJobs = jobService.getJobsByUser(userId);
-            
-            List<Map<String, Object>> result = new ArrayList<>();
-            
-            for (Job job : userJobs) {
-                List<AppliedJob> applications = appliedJobService.findByJobId(job.getId());
-                
-                List<Map<String, Object>> applicants = applications.stream()
-                    .map(app -> {
-                        Optional<User> applicantOpt = userService.findById(app.getUserId());
-                        String username = applicantOpt.map(User::getUsername).orElse("Unknown");
-                        
-                        Map<String, Object> appMap = new HashMap<>();
-                        appMap.put("application_id", app.getId());
-                        appMap.put("username", username);
-                        appMap.put("status", app.getStatus());
-                        appMap.put("applied_at", app.getAppliedAt().toString());
-                        return appMap;
-                    })
-                    .collect(Collectors.toList());
-                
-                Map<String, Object> jobMap = new HashMap<>();
-                jobMap.put("job_id", job.getId());
-                jobMap.put("job_title", job.getTitle());
-                jobMap.put("job_type", job.getJobType()); // Add job_type field
-                jobMap.put("company", job.getCompany());
-                jobMap.put("location", job.getLocation());
-                jobMap.put("salary", job.getSalary());
-                jobMap.put("description", job.getDescription());
-                jobMap.put("applicants", applicants);
-                result.add(jobMap);
-            }
-            
-            return ResponseEntity.ok().body(result);
-            
+            return postedApplicationsPage(userId, cursor, status, page, size, applicantsPerJob);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to fetch applications: " + e.getMessage());
@@ -322,6 +358,44 @@ public class AppliedJobsController {
         }
     }
 
+    // The body stays a plain list of jobs for existing clients; paging totals and the keyset cursor
+    // for the next page go in headers
+    private ResponseEntity<?> postedApplicationsPage(Long userId, Long cursor, String status, int page, int size, int applicantsPerJob) {
+        EmployerDashboardService.PostedApplicationsPage result = employerDashboardService.getPostedApplications(
+            userId, cursor, Math.max(0, page), Math.max(1, Math.min(size, 100)), Math.max(1, Math.min(applicantsPerJob, 200)), status);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .header("X-Total-Count", String.valueOf(result.totalJobs()))
+            .header("X-Page", String.valueOf(Math.max(0, page)));
+        if (result.nextCursor() != null) response.header("X-Next-Cursor", String.valueOf(result.nextCursor()));
+        return response.body(result.jobs());
+    }
+
+    // Employer analytics from the pre-aggregated rollups: applications per day in [from, to]
+    // (default: last 30 days), current status breakdown and average time-to-decision per posting
+    @GetMapping("/analytics")
+    public ResponseEntity<?> getAnalytics(@RequestParam Long userId,
+                                          @RequestParam(required = false) Long jobId,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must not be after to"));
+        }
+        List<Job> jobs = jobService.getJobsByUser(userId);
+        if (jobId != null) {
+            jobs = jobs.stream().filter(j -> j.getId().equals(jobId)).collect(Collectors.toList());
+            if (jobs.isEmpty()) {
+                return ResponseEntity.status(404).body(Map.of("error", "Job not found for this employer"));
+            }
+        }
+        return ResponseEntity.ok(Map.of(
+            "from", start.toString(),
+            "to", end.toString(),
+            "jobs", applicationAnalyticsService.getAnalytics(jobs, start, end)
+        ));
+    }
+
     @DeleteMapping("/{applicationId}")
     public ResponseEntity<?> deleteApplication(@PathVariable Long applicationId, @RequestParam Long userId) {
         try {
@@ -350,26 +424,20 @@ public class AppliedJobsController {
     }
 
     @GetMapping("/approved")
-    public ResponseEntity<?> getApprovedJobs(@RequestParam Long userId) {
+    public ResponseEntity<?> getApprovedJobs(@RequestParam Long userId,
+                                             @RequestParam(defaultValue = "0") int page,
+                                             @RequestParam(defaultValue = "100") int size) {
         try {
-            List<AppliedJob> approvedApplications = appliedJobService.findByUserId(userId)
-                .stream()
-                .filter(app -> "Accepted".equalsIgnoreCase(app.getStatus()))
-                .collect(Collectors.toList());
             List<Map<String, Object>> result = new ArrayList<>();
-            for (AppliedJob app : approvedApplications) {
-                Optional<Job> jobOpt = jobService.getJobById(app.getJobId());
-                if (jobOpt.isPresent()) {
-                    Job job = jobOpt.get();
-                    result.add(Map.of(
-                        "title", job.getTitle(),
-                        "company", job.getCompany(),
-                        "location", job.getLocation(),
-                        "salary", job.getSalary(),
-                        "description", job.getDescription(),
-                        "accepted_at", app.getAppliedAt().toString()
-                    ));
-                }
+            for (AppliedJobView view : appliedJobViewService.findApproved(userId, Math.max(0, page), Math.max(1, Math.min(size, 500)))) {
+                Map<String, Object> jobMap = new HashMap<>();
+                jobMap.put("title", view.getJobTitle());
+                jobMap.put("company", view.getCompany());
+                jobMap.put("location", view.getLocation());
+                jobMap.put("salary", view.getSalary());
+                jobMap.put("description", view.getDescription());
+                jobMap.put("accepted_at", view.getAppliedAt() != null ? view.getAppliedAt().toString() : "");
+                result.add(jobMap);
             }
             return ResponseEntity.ok().body(result);
         } catch (Exception e) {
@@ -384,4 +452,10 @@ public class AppliedJobsController {
     public static class ApproveApplicationRequest {
         public Long applicationId,jobId;
     }
+
+    public static class BulkStatusRequest {
+        public Long userId;
+        public List<Long> applicationIds;
+        public String status;
+    }
 }
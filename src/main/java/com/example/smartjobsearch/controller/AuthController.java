@@ -109,6 +109,9 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Invalid password"));
             }
             
+            user.setLastLoginAt(java.time.LocalDateTime.now());
+            userService.saveUser(user);
+
             String token = jwtService.generateAccessToken(user.getId(), user.getUsername());
 
             return ResponseEntity.ok().body(Map.of(
@@ -1,16 +1,19 @@
-
 package com.example.smartjobsearch.controller;
 import com.example.smartjobsearch.model.AppliedJob;
 import com.example.smartjobsearch.repo.AppliedJobRepository;
+import com.example.smartjobsearch.service.ResumeStore;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.stereotype.Controller;
@@ -21,29 +24,49 @@ public class FileController {
     @Autowired
     private AppliedJobRepository appliedJobRepository;
 
-    // Endpoint to download/view resume by applicationId
+    @Autowired
+    private ResumeStore resumeStore;
+
+    /**
+     * Download/view resume by applicationId. Stored resumes are immutable and named by their SHA-256,
+     * so the key is a strong ETag and clients may cache them for good; If-None-Match answers 304 and
+     * Range requests are answered with 206 regions of the file, without reading it into memory.
+     */
     @GetMapping("/api/files/resume/{applicationId}")
     @ResponseBody
     public ResponseEntity<?> downloadResume(@PathVariable Long applicationId) throws IOException {
         AppliedJob app = appliedJobRepository.findById(applicationId).orElse(null);
-        if (app == null || app.getResumePath() == null) {
+        if (app == null) {
             return ResponseEntity.notFound().build();
         }
-        File file = new File(app.getResumePath());
-        if (!file.exists()) {
+        Optional<Resource> stored = resumeStore.load(app.getResumeKey());
+        String fileName = app.getResumeFileName();
+        if (stored.isEmpty() && app.getResumePath() != null) {
+            // Uploaded before the resume store: a plain file path
+            File file = new File(app.getResumePath());
+            if (file.exists()) stored = Optional.of(new FileSystemResource(file));
+            fileName = file.getName();
+        }
+        if (stored.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        String fileName = file.getName();
+        if (fileName == null || fileName.isBlank()) fileName = "resume";
         String contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
         if (fileName.endsWith(".pdf")) contentType = "application/pdf";
         else if (fileName.endsWith(".doc")) contentType = "application/msword";
         else if (fileName.endsWith(".docx")) contentType = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
-        InputStreamResource resource = new InputStreamResource(new FileInputStream(file));
-        return ResponseEntity.ok()
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                .contentType(MediaType.parseMediaType(contentType))
-                .contentLength(file.length())
-                .body(resource);
+                .contentType(MediaType.parseMediaType(contentType));
+        if (app.getResumeKey() != null) {
+            response.eTag(app.getResumeKey())
+                    .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable());
+        } else {
+            // Legacy files can be overwritten in place, so revalidate them by modification time
+            response.lastModified(stored.get().lastModified()).cacheControl(CacheControl.noCache().cachePrivate());
+        }
+        // Conditional GETs and Range headers are handled by Spring for a Resource body
+        return response.body(stored.get());
     }
 
 
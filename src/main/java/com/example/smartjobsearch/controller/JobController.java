@@ -11,6 +11,7 @@ import com.example.smartjobsearch.model.User;
 import com.example.smartjobsearch.model.Job;
 import com.example.smartjobsearch.service.JobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,15 +26,27 @@ public class JobController {
             return ResponseEntity.status(404).body(Map.of("success", false, "error", "Job not found"));
         }
         Job job = jobOpt.get();
-        job.setTitle(updatedJob.getTitle());
-        job.setDescription(updatedJob.getDescription());
-        job.setCompany(updatedJob.getCompany());
-        job.setLocation(updatedJob.getLocation());
-        job.setSalary(updatedJob.getSalary());
-        jobService.saveJob(job);
+        copyEditableFields(updatedJob, job);
+        try {
+            jobService.saveJob(job);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("success", false, "error", JOB_CHANGED));
+        }
         return ResponseEntity.ok(Map.of("success", true, "message", "Job updated successfully!"));
     }
 
+    private static final String JOB_CHANGED = "This job was changed by another request; reload and try again";
+
+    // Fields a client may change on an existing job; status, version, change sequence and
+    // duplicate link are maintained by the server
+    private static void copyEditableFields(Job from, Job to) {
+        to.setTitle(from.getTitle());
+        to.setDescription(from.getDescription());
+        to.setCompany(from.getCompany());
+        to.setLocation(from.getLocation());
+        to.setSalary(from.getSalary());
+    }
+
     @Autowired
     private JobService jobService;
 
@@ -43,101 +56,158 @@ public class JobController {
     @Autowired
     private com.example.smartjobsearch.service.JobRecommendationService jobRecommendationService;
 
+    @Autowired
+    private com.example.smartjobsearch.service.SimilarJobsService similarJobsService;
+
+    @Autowired
+    private com.example.smartjobsearch.service.RecommendationBatchService recommendationBatchService;
+
+    @Autowired
+    private com.example.smartjobsearch.service.JobBulkImportService jobBulkImportService;
+
+    @Autowired
+    private com.example.smartjobsearch.service.JobActivityService jobActivityService;
+
+    @Autowired
+    private com.example.smartjobsearch.service.ApplicantCountService applicantCountService;
+
     @GetMapping
-    public List<Job> getAllJobs(@RequestParam(value = "search", required = false) String search) {
-        System.out.println("DEBUG JobController - getAllJobs called with search: " + search);
-        if (search != null && !search.trim().isEmpty()) {
-            List<Job> searchResults = jobService.searchJobs(search);
-            searchResults = searchResults.stream().filter(j -> !"CLOSED".equals(j.getStatus())).collect(Collectors.toList());
-            System.out.println("DEBUG JobController - Search returned " + searchResults.size() + " jobs");
-            return searchResults;
+    public List<Job> getAllJobs(@RequestParam(value = "search", required = false) String search,
+                                @RequestParam(value = "mode", required = false) String mode,
+                                @RequestParam(value = "limit", defaultValue = "50") int limit,
+                                @RequestParam(value = "collapseDuplicates", defaultValue = "false") boolean collapseDuplicates) {
+        System.out.println("DEBUG JobController - getAllJobs called with search: " + search + ", mode: " + mode);
+        List<Job> jobs;
+        if (search != null && !search.trim().isEmpty() && "hybrid".equalsIgnoreCase(mode)) {
+            jobs = jobService.hybridSearchJobs(search, Math.max(1, Math.min(limit, 200)));
+            System.out.println("DEBUG JobController - Hybrid search returned " + jobs.size() + " jobs");
+        } else if (search != null && !search.trim().isEmpty()) {
+            jobs = jobService.searchJobs(search);
+            jobs = jobs.stream().filter(j -> !"CLOSED".equals(j.getStatus())).collect(Collectors.toList());
+            System.out.println("DEBUG JobController - Search returned " + jobs.size() + " jobs");
+        } else {
+            jobs = jobService.getAllJobs().stream().filter(j -> !"CLOSED".equals(j.getStatus())).collect(Collectors.toList());
+            System.out.println("DEBUG JobController - getAllJobs returned " + jobs.size() + " jobs");
+        }
+        // Near-duplicate postings (flagged at save time) collapse onto the first of their group
+        return collapseDuplicates ? jobService.collapseDuplicates(jobs) : jobs;
+    }
+
+    // Change feed for incremental sync: pass the returned nextCursor as "since" on the next call
+    @GetMapping("/changes")
+    public ResponseEntity<?> getJobChanges(@RequestParam(defaultValue = "0") long since,
+                                           @RequestParam(defaultValue = "500") int limit) {
+        if (since < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "since must be >= 0"));
         }
-        List<Job> allJobs = jobService.getAllJobs().stream().filter(j -> !"CLOSED".equals(j.getStatus())).collect(Collectors.toList());
-        System.out.println("DEBUG JobController - getAllJobs returned " + allJobs.size() + " jobs");
-        return allJobs;
+        JobService.ChangeFeed feed = jobService.getChangesSince(since, Math.max(1, Math.min(limit, 5000)));
+        return ResponseEntity.ok(Map.of(
+            "changes", feed.changes(),
+            "nextCursor", feed.nextCursor(),
+            "hasMore", feed.hasMore()
+        ));
     }
 
-    // Get jobs by user
+    // Get jobs by user, newest first in keyset pages; the next page's cursor is in X-Next-Cursor
     @GetMapping("/user/{userId}")
-    public List<Job> getJobsByUser(@PathVariable Long userId) {
-        return jobService.getJobsByUser(userId);
+    public ResponseEntity<List<Job>> getJobsByUser(@PathVariable Long userId,
+                                                   @RequestParam(required = false) String status,
+                                                   @RequestParam(required = false) Long cursor,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        JobService.JobPage page = jobService.getJobsByUser(userId, status, cursor, Math.max(1, Math.min(limit, 500)));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) response.header("X-Next-Cursor", String.valueOf(page.nextCursor()));
+        return response.body(page.jobs());
     }
 
     // Get job by id
     @GetMapping("/{id}")
     public ResponseEntity<Job> getJobById(@PathVariable Long id) {
         Optional<Job> job = jobService.getJobById(id);
+        job.ifPresent(j -> jobActivityService.recordView(j.getId()));
         return job.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    // Create or update job
-    @PostMapping
-    public Job createOrUpdateJob(@RequestBody Job job) {
-        Job saved = jobService.saveJob(job);
+    // Lifetime view / application counts (as of the last counter flush) and current applicants by status
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<?> getJobStats(@PathVariable Long id) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("jobId", id);
+        body.put("views", 0L);
+        body.put("applications", 0L);
+        jobActivityService.getStats(id).ifPresent(stats -> {
+            body.put("views", stats.getViews());
+            body.put("applications", stats.getApplications());
+            body.put("updatedAt", stats.getUpdatedAt());
+        });
+        body.put("applicants", applicantCountService.getCounts(List.of(id)).getOrDefault(id, Map.of()));
+        return ResponseEntity.ok(body);
+    }
 
-        // Try to notify the ML service so it can update its corpus dynamically.
-        // This is best-effort and should not break job creation if ML is unavailable.
-        try {
-            String mlUrl = System.getenv().getOrDefault("ML_RECOMMENDER_URL", "http://localhost:8000");
-            // If env var points to a specific endpoint like /recommend, strip path
-            if (mlUrl.endsWith("/recommend")) {
-                mlUrl = mlUrl.substring(0, mlUrl.length() - "/recommend".length());
-            }
-            String uploadUrl = mlUrl.endsWith("/") ? mlUrl + "upload_jobs" : mlUrl + "/upload_jobs";
-
-            org.springframework.web.client.RestTemplate rt = new org.springframework.web.client.RestTemplate();
-            java.util.Map<String, Object> jobMap = new java.util.HashMap<>();
-            jobMap.put("Job Title", saved.getTitle() != null ? saved.getTitle() : "");
-            jobMap.put("Company", saved.getCompany() != null ? saved.getCompany() : "");
-            jobMap.put("Location", saved.getLocation() != null ? saved.getLocation() : "");
-            jobMap.put("Experience Level", saved.getExperience() != null ? saved.getExperience() : "");
-            jobMap.put("Salary", saved.getSalary() != null ? saved.getSalary() : "");
-            jobMap.put("Industry", "");
-            jobMap.put("Required Skills", saved.getSkills() != null ? saved.getSkills() : "");
-            jobMap.put("job_id", saved.getId() != null ? saved.getId() : 0);
-
-            java.util.Map<String, Object> payload = new java.util.HashMap<>();
-            payload.put("jobs", java.util.Arrays.asList(jobMap));
-            payload.put("train_reranker", false);
-
-            // Fire-and-forget: do not block user flow on ML availability. Log any error.
-            try {
-                @SuppressWarnings("unchecked")
-                java.util.Map<String, Object> resp = rt.postForObject(uploadUrl, payload, java.util.Map.class);
-                System.out.println("ML upload_jobs response: " + (resp != null ? resp.toString() : "null"));
-            } catch (Exception ex) {
-                System.out.println("Warning: failed to notify ML service of new job: " + ex.getMessage());
-            }
+    // Current applicants per status for a set of listed jobs, e.g. ?ids=1,2,3, from the materialized counters
+    @GetMapping("/applicant-counts")
+    public ResponseEntity<?> getApplicantCounts(@RequestParam List<Long> ids) {
+        if (ids.size() > 500) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most 500 job ids per request"));
+        }
+        Map<Long, Map<String, Long>> counts = applicantCountService.getCounts(ids);
+        Map<Long, Object> body = new HashMap<>();
+        for (Long id : ids) {
+            Map<String, Long> byStatus = counts.getOrDefault(id, Map.of());
+            body.put(id, Map.of("total", byStatus.values().stream().mapToLong(Long::longValue).sum(), "by_status", byStatus));
+        }
+        return ResponseEntity.ok(body);
+    }
 
-            // Spawn a background retrain task to update the reranker asynchronously.
-            try {
-                final String uploadUrlFinal = uploadUrl;
-                final java.util.Map<String, Object> retrainPayload = new java.util.HashMap<>();
-                retrainPayload.put("jobs", java.util.Arrays.asList(jobMap));
-                retrainPayload.put("train_reranker", true);
-
-                Thread retrainThread = new Thread(() -> {
-                    try {
-                        // Slight delay to allow ML to finish any in-flight upload
-                        Thread.sleep(1000);
-                        org.springframework.web.client.RestTemplate rt2 = new org.springframework.web.client.RestTemplate();
-                        @SuppressWarnings("unchecked")
-                        java.util.Map<String, Object> r = rt2.postForObject(uploadUrlFinal, retrainPayload, java.util.Map.class);
-                        System.out.println("ML async retrain response: " + (r != null ? r.toString() : "null"));
-                    } catch (Exception ex) {
-                        System.out.println("Warning: async retrain failed: " + ex.getMessage());
-                    }
-                });
-                retrainThread.setDaemon(true);
-                retrainThread.start();
-            } catch (Exception e) {
-                System.out.println("Non-fatal: failed to start async retrain thread: " + e.getMessage());
-            }
-        } catch (Exception e) {
-            System.out.println("Non-fatal: error while preparing ML notification: " + e.getMessage());
+    // Most viewed / applied open jobs over the recent window; served from the snapshot built by
+    // the counter flush, so this does no work per request
+    @GetMapping("/trending")
+    public List<com.example.smartjobsearch.service.JobActivityService.TrendingJob> getTrendingJobs(
+            @RequestParam(defaultValue = "10") int limit) {
+        return jobActivityService.getTrending(Math.max(1, Math.min(limit, 50)));
+    }
+
+    // "More like this": nearest open jobs, served from the precomputed neighbour cache
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<?> getSimilarJobs(@PathVariable Long id, @RequestParam(defaultValue = "5") int limit) {
+        if (jobService.getJobById(id).isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("success", false, "error", "Job not found"));
         }
+        return ResponseEntity.ok(similarJobsService.getSimilarJobs(id, Math.max(1, Math.min(limit, 20))));
+    }
 
-        return saved;
+    // Create or update job. The ML service is notified through the outbox written with the job
+    // (see MlSyncDispatcher), so job creation never waits on ML availability. An update loads the
+    // stored job and applies the editable fields, as PUT /{id} does.
+    @PostMapping
+    public ResponseEntity<?> createOrUpdateJob(@RequestBody Job job) {
+        if (job.getId() == null) return ResponseEntity.ok(jobService.saveJob(job));
+        Optional<Job> existing = jobService.getJobById(job.getId());
+        if (existing.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("success", false, "error", "Job not found"));
+        }
+        copyEditableFields(job, existing.get());
+        try {
+            return ResponseEntity.ok(jobService.saveJob(existing.get()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("success", false, "error", JOB_CHANGED));
+        }
+    }
+
+    // Bulk import from a CSV (header row required) or NDJSON request body, parsed as a stream.
+    // Rows failing validation are reported by row number; valid rows are imported regardless.
+    @PostMapping(value = "/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> bulkImportJobs(jakarta.servlet.http.HttpServletRequest request,
+                                            @RequestParam(value = "postedBy", required = false) Long postedBy) {
+        try (java.io.Reader body = new java.io.InputStreamReader(request.getInputStream(), java.nio.charset.StandardCharsets.UTF_8)) {
+            String contentType = request.getContentType() != null ? request.getContentType().toLowerCase() : "";
+            com.example.smartjobsearch.service.JobBulkImportService.ImportReport report = contentType.startsWith("text/csv")
+                ? jobBulkImportService.importCsv(body, postedBy)
+                : jobBulkImportService.importNdjson(body, postedBy);
+            return ResponseEntity.ok(report);
+        } catch (java.io.IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to read upload: " + e.getMessage()));
+        }
     }
 
     // Delete job
@@ -173,43 +243,7 @@ public class JobController {
             );
             
             // Format response and respect requested limit
-            double profileCompletenessFraction = Math.max(0.0, Math.min(1.0, result.getProfileCompleteness() / 100.0));
-
-            List<Map<String, Object>> formattedRecommendations = result.getRecommendations().stream()
-                .limit(limit)
-                .map(rec -> {
-                    Job job = rec.getJob();
-                    Map<String, Object> jobData = new HashMap<>();
-                    jobData.put("id", job.getId());
-                    jobData.put("title", job.getTitle());
-                    jobData.put("company", job.getCompany());
-                    jobData.put("location", job.getLocation());
-                    jobData.put("salary", job.getSalary());
-                    jobData.put("description", job.getDescription());
-
-                    // Adjust score using profile completeness to make match % more accurate and stable
-                    double rawScore = rec.getScore();
-                    if (Double.isNaN(rawScore) || Double.isInfinite(rawScore)) rawScore = 0.0;
-                    // Blend: 85% recommender score, 15% profile completeness (tunable)
-                    double blended = rawScore * 0.85 + profileCompletenessFraction * 0.15;
-                    // Clamp to [0,1]
-                    double safe = Math.max(0.0, Math.min(1.0, blended));
-                    int percent = (int) Math.round(safe * 100.0);
-                    // If recommender or profile gives a non-zero signal, show a small visible floor
-                    if (percent == 0 && (rawScore > 0.0 || profileCompletenessFraction > 0.0)) {
-                        percent = 5; // minimal visible percent to avoid misleading 0%
-                    }
-                    jobData.put("match_score", percent);
-
-                    // Build match reasons and include profile completeness note
-                    java.util.List<String> reasons = new java.util.ArrayList<>();
-                    if (rec.getReasons() != null) reasons.addAll(rec.getReasons());
-                    reasons.add("Profile completeness: " + Math.round(profileCompletenessFraction * 100) + "%");
-                    jobData.put("match_reasons", reasons);
-
-                    return jobData;
-                })
-                .collect(Collectors.toList());
+            List<Map<String, Object>> formattedRecommendations = formatRecommendations(result, limit);
             
             return ResponseEntity.ok(Map.of(
                 "recommendations", formattedRecommendations,
@@ -234,4 +268,137 @@ public class JobController {
             ));
         }
     }
+
+    // Shape recommendation results for the API, respecting the requested limit
+    private List<Map<String, Object>> formatRecommendations(com.example.smartjobsearch.service.JobRecommendationService.JobRecommendationResult result, int limit) {
+        double profileCompletenessFraction = Math.max(0.0, Math.min(1.0, result.getProfileCompleteness() / 100.0));
+        return result.getRecommendations().stream()
+            .limit(limit)
+            .map(rec -> {
+                Job job = rec.getJob();
+                Map<String, Object> jobData = new HashMap<>();
+                jobData.put("id", job.getId());
+                jobData.put("title", job.getTitle());
+                jobData.put("company", job.getCompany());
+                jobData.put("location", job.getLocation());
+                jobData.put("salary", job.getSalary());
+                jobData.put("description", job.getDescription());
+
+                // Adjust score using profile completeness to make match % more accurate and stable
+                double rawScore = rec.getScore();
+                if (Double.isNaN(rawScore) || Double.isInfinite(rawScore)) rawScore = 0.0;
+                // Blend: 85% recommender score, 15% profile completeness (tunable)
+                double blended = rawScore * 0.85 + profileCompletenessFraction * 0.15;
+                // Clamp to [0,1]
+                double safe = Math.max(0.0, Math.min(1.0, blended));
+                int percent = (int) Math.round(safe * 100.0);
+                // If recommender or profile gives a non-zero signal, show a small visible floor
+                if (percent == 0 && (rawScore > 0.0 || profileCompletenessFraction > 0.0)) {
+                    percent = 5; // minimal visible percent to avoid misleading 0%
+                }
+                jobData.put("match_score", percent);
+
+                // Build match reasons and include profile completeness note
+                java.util.List<String> reasons = new java.util.ArrayList<>();
+                if (rec.getReasons() != null) reasons.addAll(rec.getReasons());
+                reasons.add("Profile completeness: " + Math.round(profileCompletenessFraction * 100) + "%");
+                jobData.put("match_reasons", reasons);
+
+                return jobData;
+            })
+            .collect(Collectors.toList());
+    }
+
+    // Recommendations for many users in one call (used by the digest service)
+    @PostMapping("/ai/recommendations/batch")
+    public ResponseEntity<?> getBatchRecommendations(@RequestBody BatchRecommendationRequest request) {
+        try {
+            if (request.userIds == null || request.userIds.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "userIds are required"));
+            }
+            if (request.userIds.size() > 1000) {
+                return ResponseEntity.badRequest().body(Map.of("error", "At most 1000 users per batch"));
+            }
+            int limit = request.limit != null && request.limit > 0 ? request.limit : 3;
+            List<User> users = userService.findAllById(request.userIds);
+            var results = jobRecommendationService.getBatchRecommendations(users, limit);
+
+            Map<String, Object> byUser = new java.util.LinkedHashMap<>();
+            for (User user : users) {
+                var result = results.get(user.getId());
+                if (result == null) continue;
+                byUser.put(String.valueOf(user.getId()), Map.of(
+                    "recommendations", formatRecommendations(result, limit),
+                    "profile_completeness", Math.round(result.getProfileCompleteness())
+                ));
+            }
+            List<Long> missing = request.userIds.stream().filter(id -> !results.containsKey(id)).distinct().collect(Collectors.toList());
+            return ResponseEntity.ok(Map.of("results", byUser, "users_not_found", missing));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Failed to get batch recommendations: " + e.getMessage()
+            ));
+        }
+    }
+
+    public static class BatchRecommendationRequest {
+        public List<Long> userIds;
+        public Integer limit;
+    }
+
+    // Precomputed recommendations written by the background batch (cheap read for widgets/emails)
+    @GetMapping("/ai/recommendations/precomputed")
+    public ResponseEntity<?> getPrecomputedRecommendations(@RequestParam Long userId) {
+        var rows = recommendationBatchService.getPrecomputed(userId);
+        Map<Long, Job> jobsById = new HashMap<>();
+        for (Job job : jobService.getJobsByIds(rows.stream().map(r -> r.getJobId()).collect(Collectors.toList()))) {
+            jobsById.put(job.getId(), job);
+        }
+        List<Map<String, Object>> recommendations = new java.util.ArrayList<>();
+        for (var row : rows) {
+            Job job = jobsById.get(row.getJobId());
+            if (job == null || "CLOSED".equals(job.getStatus())) continue;
+            Map<String, Object> jobData = new HashMap<>();
+            jobData.put("id", job.getId());
+            jobData.put("title", job.getTitle());
+            jobData.put("company", job.getCompany());
+            jobData.put("location", job.getLocation());
+            jobData.put("salary", job.getSalary());
+            jobData.put("match_score", Math.round(Math.max(0f, Math.min(1f, row.getScore() != null ? row.getScore() : 0f)) * 100));
+            recommendations.add(jobData);
+        }
+        return ResponseEntity.ok(Map.of(
+            "recommendations", recommendations,
+            "computed_at", rows.isEmpty() || rows.get(0).getComputedAt() == null ? "" : rows.get(0).getComputedAt().toString()
+        ));
+    }
+
+    // Trigger a background precompute run: mode=full (all active users) or incremental
+    @PostMapping("/ai/recommendations/precompute")
+    public ResponseEntity<?> precomputeRecommendations(@RequestParam(defaultValue = "incremental") String mode) {
+        if (recommendationBatchService.isRunning()) {
+            return ResponseEntity.status(409).body(Map.of("error", "A precompute run is already in progress"));
+        }
+        boolean full = "full".equalsIgnoreCase(mode);
+        if (!recommendationBatchService.submit(full)) {
+            return ResponseEntity.status(409).body(Map.of("error", "A precompute run is already in progress"));
+        }
+        return ResponseEntity.accepted().body(Map.of("message", "Precompute started", "mode", full ? "full" : "incremental"));
+    }
+
+    // Throughput report of the last precompute run
+    @GetMapping("/ai/recommendations/precompute/status")
+    public ResponseEntity<?> getPrecomputeStatus() {
+        var report = recommendationBatchService.getLastReport();
+        Map<String, Object> body = new HashMap<>();
+        body.put("running", recommendationBatchService.isRunning());
+        if (report != null) {
+            body.put("mode", report.getMode());
+            body.put("users_processed", report.getUsersProcessed());
+            body.put("users_failed", report.getUsersFailed());
+            body.put("elapsed_ms", report.getElapsedMs());
+            body.put("users_per_sec", report.getUsersPerSecond());
+        }
+        return ResponseEntity.ok(body);
+    }
 }
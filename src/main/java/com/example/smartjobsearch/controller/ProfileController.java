@@ -178,6 +178,7 @@ public class ProfileController {
                 user.setCertifications(request.certifications.trim());
             }
             
+            user.setProfileUpdatedAt(java.time.LocalDateTime.now());
             User savedUser = userService.saveUser(user);
             
             Map<String, Object> userMap = new HashMap<>();
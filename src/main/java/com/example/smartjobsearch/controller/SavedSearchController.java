@@ -0,0 +1,78 @@
+package com.example.smartjobsearch.controller;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.model.JobAlert;
+import com.example.smartjobsearch.model.SavedSearch;
+import com.example.smartjobsearch.service.JobAlertService;
+import com.example.smartjobsearch.service.JobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+public class SavedSearchController {
+
+    @Autowired
+    private JobAlertService jobAlertService;
+
+    @Autowired
+    private JobService jobService;
+
+    @GetMapping
+    public List<SavedSearch> getSavedSearches(@RequestParam Long userId) {
+        return jobAlertService.getSavedSearches(userId);
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createSavedSearch(@RequestBody SavedSearch search) {
+        try {
+            return ResponseEntity.ok(jobAlertService.createSavedSearch(search));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteSavedSearch(@PathVariable Long id, @RequestParam Long userId) {
+        if (!jobAlertService.deleteSavedSearch(id, userId)) {
+            return ResponseEntity.status(404).body(Map.of("success", false, "error", "Saved search not found"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // Alert inbox, newest first, with the matching job inlined
+    @GetMapping("/alerts")
+    public ResponseEntity<?> getAlerts(@RequestParam Long userId,
+                                       @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        List<JobAlert> alerts = jobAlertService.getAlerts(userId, unreadOnly);
+        Map<Long, Job> jobs = jobService.getJobsByIds(alerts.stream().map(JobAlert::getJobId).distinct().collect(Collectors.toList()))
+            .stream().collect(Collectors.toMap(Job::getId, Function.identity()));
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (JobAlert alert : alerts) {
+            Job job = jobs.get(alert.getJobId());
+            if (job == null) continue; // job deleted since the alert was raised
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", alert.getId());
+            item.put("savedSearchId", alert.getSavedSearchId());
+            item.put("createdAt", alert.getCreatedAt());
+            item.put("read", alert.getReadAt() != null);
+            item.put("job", job);
+            items.add(item);
+        }
+        return ResponseEntity.ok(Map.of(
+            "alerts", items,
+            "unread", jobAlertService.countUnread(userId)
+        ));
+    }
+
+    @PostMapping("/alerts/read")
+    public ResponseEntity<?> markAlertsRead(@RequestParam Long userId) {
+        int updated = jobAlertService.markAllRead(userId);
+        return ResponseEntity.ok(Map.of("success", true, "updated", updated));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.smartjobsearch.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Application counters per job, day and status, maintained on apply / approve / reject / withdraw.
+ * Current per-status totals are sum(entered) - sum(exited); applications per day are the Pending
+ * entries; average time-to-decision is decisionSeconds / timedDecisions on decided statuses.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_application_rollup", columnNames = {"jobId", "bucketDate", "status"}))
+public class ApplicationRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long jobId;
+    private LocalDate bucketDate;
+    private String status;
+    private long entered;
+    private long exited;
+    private long decisionSeconds;
+    private long timedDecisions;
+}
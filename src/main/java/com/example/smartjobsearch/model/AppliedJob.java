@@ -7,6 +7,11 @@ import lombok.Data;
 
 @Entity
 @Data
+@Table(indexes = {
+           @Index(name = "idx_applied_job_rank", columnList = "jobId, matchScore"),
+           @Index(name = "idx_applied_job_job_status", columnList = "jobId, status, appliedAt")
+       },
+       uniqueConstraints = @UniqueConstraint(name = "uk_applied_job_user_job", columnNames = {"userId", "jobId"}))
 public class AppliedJob {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,6 +24,15 @@ public class AppliedJob {
     private String company;
     private String status;
     private LocalDateTime appliedAt;
-    private String resumePath;
+    private String resumePath; // legacy uploads only; new resumes are referenced by resumeKey
+    private String resumeKey; // ResumeStore storage key (SHA-256 of the content)
+    private String resumeFileName;
+
+    // Applicant-to-job match score (ApplicantScoringService); refreshed when the profile or job changes
+    private Double matchScore;
+    private LocalDateTime matchScoredAt;
+
+    @Version
+    private long version; // optimistic lock; set-based status updates bump it explicitly
 }
 
@@ -0,0 +1,32 @@
+package com.example.smartjobsearch.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read model for the seeker's applied / approved jobs pages: one row per application with the job
+ * fields those pages show, kept in step by AppliedJobViewService on every application or job change.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_applied_job_view_user", columnList = "userId, status, appliedAt"))
+public class AppliedJobView {
+    @Id
+    private Long applicationId;
+
+    private Long userId;
+    private Long jobId;
+    private String status;
+    private LocalDateTime appliedAt;
+
+    private String jobTitle;
+    private String company;
+    private String location;
+    private String salary;
+    private String description;
+    private boolean jobDeleted;
+}
@@ -1,9 +1,16 @@
 package com.example.smartjobsearch.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.LocalDateTime;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,6 +18,10 @@ import lombok.NoArgsConstructor;
 @Entity
 @Data
 @NoArgsConstructor
+@Table(indexes = {
+    @Index(name = "idx_job_change_seq", columnList = "changeSeq"),
+    @Index(name = "idx_job_posted_by_status", columnList = "postedBy, status")
+})
 public class Job {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,6 +39,17 @@ public class Job {
     private String skills;
     private String status = "OPEN"; // Default to OPEN
 
+    // Change tracking for the /api/jobs/changes feed
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long changeSeq; // id of the latest JobChange for this job
+
+    private Long duplicateOf; // canonical job this posting near-duplicates (see NearDuplicateIndex)
+
+    @Version
+    private long version; // optimistic lock; a stale update fails instead of overwriting
+
     public Job(String title, String description, String company, String location, String salary, Long postedBy, String jobType, String resumePath, String experience, String skills) {
         this.title = title;
         this.description = description;
@@ -40,4 +62,15 @@ public class Job {
         this.experience = experience;
         this.skills = skills;
     }
+
+    @PrePersist
+    void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
 }
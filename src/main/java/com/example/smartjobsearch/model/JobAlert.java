@@ -0,0 +1,39 @@
+package com.example.smartjobsearch.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Alert inbox entry: a job matched one of the user's saved searches
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(
+    uniqueConstraints = @UniqueConstraint(name = "uk_job_alert_search_job", columnNames = {"savedSearchId", "jobId"}),
+    indexes = {
+        @Index(name = "idx_job_alert_user", columnList = "userId, id"),
+        @Index(name = "idx_job_alert_job", columnList = "jobId")
+    }
+)
+public class JobAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long userId;
+    private Long savedSearchId;
+    private Long jobId;
+    private LocalDateTime createdAt;
+    private LocalDateTime readAt;
+
+    public JobAlert(Long userId, Long savedSearchId, Long jobId) {
+        this.userId = userId;
+        this.savedSearchId = savedSearchId;
+        this.jobId = jobId;
+        this.createdAt = LocalDateTime.now();
+    }
+}
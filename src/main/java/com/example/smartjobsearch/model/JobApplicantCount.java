@@ -0,0 +1,24 @@
+package com.example.smartjobsearch.model;
+
+import jakarta.persistence.*;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Current number of applications per job and status, kept by ApplicantCountService so listings and
+ * dashboards can show counts without reading applied_job
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_job_applicant_count", columnNames = {"jobId", "status"}))
+public class JobApplicantCount {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long jobId;
+    private String status;
+    private long applicants;
+}
@@ -0,0 +1,37 @@
+package com.example.smartjobsearch.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Append-only change log for jobs. The id follows insertion order; seq is assigned after commit by
+ * JobChangeSequencer, follows commit order and is the /api/jobs/changes cursor. DELETE rows are the
+ * tombstones of deleted jobs.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_job_change_job", columnList = "jobId"))
+public class JobChange {
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long jobId;
+    @Column(unique = true)
+    private Long seq; // null until the sequencer has seen the committed row
+    private String type;
+    private LocalDateTime changedAt;
+
+    public JobChange(Long jobId, String type) {
+        this.jobId = jobId;
+        this.type = type;
+        this.changedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.smartjobsearch.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lifetime view / application counters per job, written behind by JobActivityService
+ */
+@Entity
+@Data
+@NoArgsConstructor
+public class JobStats {
+    @Id
+    private Long jobId;
+
+    private long views;
+    private long applications;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,40 @@
+package com.example.smartjobsearch.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pending change to push to the ML service corpus. Written in the same transaction as the job
+ * change and drained in batches by MlSyncDispatcher.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_ml_outbox_pending", columnList = "status, nextAttemptAt"))
+public class MlOutboxEvent {
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long jobId;
+    private String type;
+    private String status = "PENDING"; // PENDING or FAILED (sent events are deleted)
+    private int attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime nextAttemptAt;
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    public MlOutboxEvent(Long jobId, String type) {
+        this.jobId = jobId;
+        this.type = type;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
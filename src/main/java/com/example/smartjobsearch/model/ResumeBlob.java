@@ -0,0 +1,23 @@
+package com.example.smartjobsearch.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One stored resume body, keyed by its SHA-256, with the number of applications referencing it
+ */
+@Entity
+@Data
+@NoArgsConstructor
+public class ResumeBlob {
+    @Id
+    @Column(length = 64)
+    private String storageKey;
+
+    private long sizeBytes;
+    private long refCount;
+    private LocalDateTime createdAt;
+}
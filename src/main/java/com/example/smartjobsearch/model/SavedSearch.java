@@ -0,0 +1,27 @@
+package com.example.smartjobsearch.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A seeker's saved job query; new and updated jobs matching it produce JobAlert rows
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_saved_search_user", columnList = "userId"))
+public class SavedSearch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long userId;
+    private String keywords; // all words must appear in the job's searchable text
+    private String location;
+    private String jobType;
+    private Integer minSalary; // compared with the first number in Job.salary
+    private LocalDateTime createdAt;
+}
@@ -1,6 +1,7 @@
 package com.example.smartjobsearch.model;
 
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -30,6 +31,11 @@ public class User {
     @Column(columnDefinition = "TEXT")
     private String certifications; // Professional certifications
 
+    // Activity tracking for batch recommendation precompute
+    private LocalDateTime lastLoginAt;
+    private LocalDateTime profileUpdatedAt;
+    private LocalDateTime recommendationsComputedAt; // Last batch run for this user, even if it found nothing
+
     public User(String fullName, String username, String email, String password) {
         this.fullName = fullName;
         this.username = username;
@@ -0,0 +1,37 @@
+package com.example.smartjobsearch.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One precomputed recommendation (user, position) -> job, written by the batch precompute
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = {
+    @Index(name = "idx_user_rec_user", columnList = "userId, position"),
+    @Index(name = "idx_user_rec_job", columnList = "jobId")
+})
+public class UserRecommendation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long userId;
+    private Long jobId;
+    private Integer position;
+    private Float score;
+    private LocalDateTime computedAt;
+
+    public UserRecommendation(Long userId, Long jobId, Integer position, Float score, LocalDateTime computedAt) {
+        this.userId = userId;
+        this.jobId = jobId;
+        this.position = position;
+        this.score = score;
+        this.computedAt = computedAt;
+    }
+}
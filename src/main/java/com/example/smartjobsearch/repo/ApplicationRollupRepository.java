@@ -0,0 +1,21 @@
+package com.example.smartjobsearch.repo;
+
+import com.example.smartjobsearch.model.ApplicationRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ApplicationRollupRepository extends JpaRepository<ApplicationRollup, Long> {
+    List<ApplicationRollup> findByJobIdInAndBucketDateBetweenOrderByBucketDateAsc(Collection<Long> jobIds, LocalDate from, LocalDate to);
+
+    // (jobId, status, current count, decision seconds, timed decisions) over all history
+    @Query("select r.jobId, r.status, sum(r.entered) - sum(r.exited), sum(r.decisionSeconds), sum(r.timedDecisions) "
+         + "from ApplicationRollup r where r.jobId in :jobIds group by r.jobId, r.status")
+    List<Object[]> totalsByJobAndStatus(@Param("jobIds") Collection<Long> jobIds);
+}
@@ -1,12 +1,76 @@
 package com.example.smartjobsearch.repo;
 
 import com.example.smartjobsearch.model.AppliedJob;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AppliedJobRepository extends JpaRepository<AppliedJob, Long> {
-    List<AppliedJob> findByUserId(Long userId);
-    List<AppliedJob> findByJobId(Long jobId);
+    boolean existsByUserIdAndJobId(Long userId, Long jobId);
+
+    // Applicants best match first, read backwards along idx_applied_job_rank (jobId, matchScore; InnoDB
+    // appends the id). MySQL sorts NULL below every value, so unscored applications come last without a computed sort
+    // key that would defeat the index. A null status matches all. A null afterId starts from the top, otherwise
+    // continues after (afterScore, afterId); a null afterScore continues among the unscored.
+    @Query("select a from AppliedJob a where a.jobId = :jobId and (:status is null or a.status = :status) "
+         + "and (:afterId is null "
+         + "  or (:afterScore is null and a.matchScore is null and a.id < :afterId) "
+         + "  or (:afterScore is not null and (a.matchScore < :afterScore or (a.matchScore = :afterScore and a.id < :afterId) "
+         + "      or a.matchScore is null))) "
+         + "order by a.matchScore desc, a.id desc")
+    List<AppliedJob> findByJobIdRanked(@Param("jobId") Long jobId, @Param("status") String status,
+                                       @Param("afterScore") Double afterScore, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset page of a job's applications, newest first; a null afterAt starts from the top
+    @Query("select a from AppliedJob a where a.jobId = :jobId and (:status is null or a.status = :status) "
+         + "and (:afterAt is null or a.appliedAt < :afterAt or (a.appliedAt = :afterAt and a.id < :afterId)) "
+         + "order by a.appliedAt desc, a.id desc")
+    List<AppliedJob> findPageByJob(@Param("jobId") Long jobId, @Param("status") String status,
+                                   @Param("afterAt") LocalDateTime afterAt, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Pending applications never scored, or scored before the applicant's profile or the job last changed
+    @Query("select a.id from AppliedJob a, User u, Job j where u.id = a.userId and j.id = a.jobId and a.status = 'Pending' "
+         + "and (a.matchScoredAt is null or u.profileUpdatedAt > a.matchScoredAt or j.updatedAt > a.matchScoredAt) order by a.id")
+    List<Long> findIdsNeedingScore(Pageable pageable);
+
+    // Writes only the score columns so a concurrent status change is never overwritten
+    @Modifying
+    @Transactional
+    @Query("update AppliedJob a set a.matchScore = :score, a.matchScoredAt = :scoredAt where a.id = :id")
+    int updateMatchScore(@Param("id") Long id, @Param("score") Double score, @Param("scoredAt") LocalDateTime scoredAt);
+
+    @Modifying
+    @Transactional
+    @Query("update AppliedJob a set a.resumeKey = :resumeKey, a.resumeFileName = :resumeFileName where a.id = :id")
+    int updateResume(@Param("id") Long id, @Param("resumeKey") String resumeKey, @Param("resumeFileName") String resumeFileName);
+
+    List<AppliedJob> findByJobIdAndStatusAndIdNot(Long jobId, String status, Long exceptId);
+
+    // Set-based status change for the rest of a job's applications; bumps the version like an entity update
+    @Modifying
+    @Query("update AppliedJob a set a.status = :to, a.version = a.version + 1 where a.jobId = :jobId and a.status = :from and a.id <> :exceptId")
+    int updateStatusForJob(@Param("jobId") Long jobId, @Param("from") String from, @Param("to") String to, @Param("exceptId") Long exceptId);
+
+    // Only applications on jobs posted by the employer; ids missing from the result are not theirs
+    @Query("select a from AppliedJob a, Job j where j.id = a.jobId and a.id in :ids and j.postedBy = :employerId")
+    List<AppliedJob> findOwnedByEmployer(@Param("ids") Collection<Long> ids, @Param("employerId") Long employerId);
+
+    // Compare-and-set on the previous status: rows changed since they were read are skipped, and the
+    // caller compares the count with what it expected
+    @Modifying(clearAutomatically = true)
+    @Query("update AppliedJob a set a.status = :to, a.version = a.version + 1 "
+         + "where a.id in :ids and (a.status = :from or (:from is null and a.status is null))")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("from") String from, @Param("to") String to);
+
+    // (userId, jobId) pairs only, for building the co-application matrix without loading entities
+    @Query("select a.userId, a.jobId from AppliedJob a")
+    List<Object[]> findAllUserJobPairs();
 }
@@ -0,0 +1,55 @@
+package com.example.smartjobsearch.repo;
+
+import com.example.smartjobsearch.model.AppliedJobView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AppliedJobViewRepository extends JpaRepository<AppliedJobView, Long> {
+    // Newest first; a null afterAt starts from the top, otherwise continues after (afterAt, afterId)
+    @Query("select v from AppliedJobView v where v.userId = :userId and v.status = :status "
+         + "and (:afterAt is null or v.appliedAt < :afterAt or (v.appliedAt = :afterAt and v.applicationId < :afterId)) "
+         + "order by v.appliedAt desc, v.applicationId desc")
+    List<AppliedJobView> findByUserAndStatus(@Param("userId") Long userId, @Param("status") String status,
+                                             @Param("afterAt") LocalDateTime afterAt, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select v from AppliedJobView v where v.userId = :userId and v.status <> :status "
+         + "and (:afterAt is null or v.appliedAt < :afterAt or (v.appliedAt = :afterAt and v.applicationId < :afterId)) "
+         + "order by v.appliedAt desc, v.applicationId desc")
+    List<AppliedJobView> findByUserExcludingStatus(@Param("userId") Long userId, @Param("status") String status,
+                                                   @Param("afterAt") LocalDateTime afterAt, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select v from AppliedJobView v where v.userId = :userId and v.status = :status and v.jobDeleted = false "
+         + "order by v.appliedAt desc, v.applicationId desc")
+    List<AppliedJobView> findLiveByUserAndStatus(@Param("userId") Long userId, @Param("status") String status, Pageable pageable);
+
+    @Modifying
+    @Query("update AppliedJobView v set v.status = :status where v.applicationId = :applicationId")
+    int updateStatus(@Param("applicationId") Long applicationId, @Param("status") String status);
+
+    @Modifying
+    @Query("update AppliedJobView v set v.status = :to where v.jobId = :jobId and v.status = :from and v.applicationId <> :exceptId")
+    int updateStatusForJob(@Param("jobId") Long jobId, @Param("from") String from, @Param("to") String to, @Param("exceptId") Long exceptId);
+
+    @Modifying
+    @Query("update AppliedJobView v set v.status = :status where v.applicationId in :applicationIds")
+    int updateStatusByIds(@Param("applicationIds") Collection<Long> applicationIds, @Param("status") String status);
+
+    @Modifying
+    @Query("update AppliedJobView v set v.jobTitle = :title, v.company = :company, v.location = :location, "
+         + "v.salary = :salary, v.description = :description where v.jobId = :jobId")
+    int updateJob(@Param("jobId") Long jobId, @Param("title") String title, @Param("company") String company,
+                  @Param("location") String location, @Param("salary") String salary, @Param("description") String description);
+
+    @Modifying
+    @Query("update AppliedJobView v set v.jobDeleted = true where v.jobId = :jobId")
+    int markJobDeleted(@Param("jobId") Long jobId);
+}
@@ -0,0 +1,30 @@
+package com.example.smartjobsearch.repo;
+
+import com.example.smartjobsearch.model.JobAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobAlertRepository extends JpaRepository<JobAlert, Long> {
+    List<JobAlert> findTop100ByUserIdOrderByIdDesc(Long userId);
+    List<JobAlert> findTop100ByUserIdAndReadAtIsNullOrderByIdDesc(Long userId);
+    long countByUserIdAndReadAtIsNull(Long userId);
+
+    // Saved searches that already alerted on a job, so re-saving the job does not alert twice
+    @Query("select a.savedSearchId from JobAlert a where a.jobId = :jobId")
+    List<Long> findSavedSearchIdsByJobId(@Param("jobId") Long jobId);
+
+    @Modifying
+    @Query("update JobAlert a set a.readAt = :now where a.userId = :userId and a.readAt is null")
+    int markAllRead(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from JobAlert a where a.savedSearchId = :savedSearchId")
+    int deleteBySavedSearchId(@Param("savedSearchId") Long savedSearchId);
+}
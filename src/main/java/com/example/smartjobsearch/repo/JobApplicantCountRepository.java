@@ -0,0 +1,13 @@
+package com.example.smartjobsearch.repo;
+
+import com.example.smartjobsearch.model.JobApplicantCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JobApplicantCountRepository extends JpaRepository<JobApplicantCount, Long> {
+    List<JobApplicantCount> findByJobIdIn(Collection<Long> jobIds);
+}
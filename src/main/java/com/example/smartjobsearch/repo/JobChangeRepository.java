@@ -0,0 +1,31 @@
+package com.example.smartjobsearch.repo;
+
+import com.example.smartjobsearch.model.JobChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobChangeRepository extends JpaRepository<JobChange, Long> {
+    // Sequenced changes after the cursor, in commit order
+    @Query("select c from JobChange c where c.seq > :since order by c.seq")
+    List<JobChange> findChangesSince(@Param("since") Long since, Pageable pageable);
+
+    // Committed changes still waiting for a sequence number, oldest first
+    List<JobChange> findBySeqIsNullOrderByIdAsc(Pageable pageable);
+
+    @Query("select coalesce(max(c.seq), 0) from JobChange c")
+    long maxSeq();
+
+    // Compaction: upserts superseded by a later change to the same job carry no information
+    @Modifying
+    @Query("delete from JobChange c where c.type = 'UPSERT' and c.changedAt < :before and c.seq is not null and exists "
+         + "(select 1 from JobChange later where later.jobId = c.jobId and later.seq > c.seq)")
+    int deleteSupersededBefore(@Param("before") LocalDateTime before);
+}
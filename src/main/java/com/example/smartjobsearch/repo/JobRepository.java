@@ -1,11 +1,24 @@
 package com.example.smartjobsearch.repo;
 
 import com.example.smartjobsearch.model.Job;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface JobRepository extends JpaRepository<Job, Long> {
     List<Job> findByPostedBy(Long postedBy);
+    Page<Job> findByPostedBy(Long postedBy, Pageable pageable);
+    List<Job> findByChangeSeqIsNull();
+    long countByPostedBy(Long postedBy);
+
+    // Keyset page of an employer's jobs, newest first; a null afterId starts from the top
+    @Query("select j from Job j where j.postedBy = :postedBy and (:status is null or j.status = :status) "
+         + "and (:afterId is null or j.id < :afterId) order by j.id desc")
+    List<Job> findPageByPostedBy(@Param("postedBy") Long postedBy, @Param("status") String status,
+                                 @Param("afterId") Long afterId, Pageable pageable);
 }
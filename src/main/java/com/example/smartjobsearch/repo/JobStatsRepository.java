@@ -0,0 +1,9 @@
+package com.example.smartjobsearch.repo;
+
+import com.example.smartjobsearch.model.JobStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobStatsRepository extends JpaRepository<JobStats, Long> {
+}
@@ -0,0 +1,19 @@
+package com.example.smartjobsearch.repo;
+
+import com.example.smartjobsearch.model.MlOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MlOutboxRepository extends JpaRepository<MlOutboxEvent, Long> {
+    @Query("select e from MlOutboxEvent e where e.status = 'PENDING' and e.nextAttemptAt <= :now order by e.id")
+    List<MlOutboxEvent> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(String status);
+}
@@ -0,0 +1,13 @@
+package com.example.smartjobsearch.repo;
+
+import com.example.smartjobsearch.model.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+    List<SavedSearch> findByUserIdOrderByIdDesc(Long userId);
+    long countByUserId(Long userId);
+}
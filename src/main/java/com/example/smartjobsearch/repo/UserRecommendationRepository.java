@@ -0,0 +1,31 @@
+package com.example.smartjobsearch.repo;
+
+import com.example.smartjobsearch.model.UserRecommendation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserRecommendationRepository extends JpaRepository<UserRecommendation, Long> {
+    List<UserRecommendation> findByUserIdOrderByPositionAsc(Long userId);
+
+    @Modifying
+    @Query("delete from UserRecommendation r where r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Users whose profile changed after their recommendations were last computed (or never computed);
+    // the per-user marker also covers runs that produced no rows
+    @Query("select u.id from User u where u.profileUpdatedAt is not null and u.profileUpdatedAt > "
+         + "coalesce(u.recommendationsComputedAt, :epoch)")
+    List<Long> findUserIdsWithStaleRecommendations(@Param("epoch") LocalDateTime epoch);
+
+    // Users with a precomputed recommendation pointing at a job that was closed or deleted
+    @Query("select distinct r.userId from UserRecommendation r where not exists "
+         + "(select j.id from Job j where j.id = r.jobId and (j.status is null or j.status <> 'CLOSED'))")
+    List<Long> findUserIdsWithClosedRecommendations();
+}
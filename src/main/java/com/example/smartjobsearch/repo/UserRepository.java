@@ -1,12 +1,26 @@
 package com.example.smartjobsearch.repo;
 
 import com.example.smartjobsearch.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByUsername(String username);
     User findByEmail(String email);
-}
 
+    // Keyset page of users who logged in or edited their profile since the cutoff
+    @Query("select u from User u where u.id > :afterId and (u.lastLoginAt >= :since or u.profileUpdatedAt >= :since) order by u.id")
+    List<User> findActiveSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("update User u set u.recommendationsComputedAt = :computedAt where u.id = :userId")
+    int markRecommendationsComputed(@Param("userId") Long userId, @Param("computedAt") LocalDateTime computedAt);
+}
@@ -20,6 +20,9 @@ import java.util.List;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    // The only path that accepts a token outside the Authorization header (EventSource clients)
+    private static final String EVENTS_PATH = "/api/applied-jobs/events";
+
     private final JwtService jwtService;
 
     public JwtAuthFilter(JwtService jwtService) {
@@ -32,14 +35,25 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        boolean streamToken = false;
+        String token = null;
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            token = authHeader.substring("Bearer ".length());
+        } else if (EVENTS_PATH.equals(request.getRequestURI()) && request.getParameter("access_token") != null) {
+            token = request.getParameter("access_token");
+            streamToken = true;
+        }
+        if (token == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String token = authHeader.substring("Bearer ".length());
         try {
             Claims claims = jwtService.parseAndValidate(token);
+            // Stream tokens open the event stream and nothing else; access tokens never go in a URL
+            if (streamToken != JwtService.EVENTS_SCOPE.equals(claims.get("scope", String.class))) {
+                throw new IllegalArgumentException("Token not valid for this request");
+            }
             String username = claims.get("username", String.class);
 
             // Unified user: no roles/authorities.
@@ -15,17 +15,22 @@ import java.util.Map;
 @Service
 public class JwtService {
 
+    public static final String EVENTS_SCOPE = "events";
+
     private final SecretKey signingKey;
     private final long accessTokenTtlMs;
+    private final long streamTokenTtlMs;
     private final String issuer;
 
     public JwtService(
             @Value("${security.jwt.secret}") String secret,
             @Value("${security.jwt.access-token-ttl-ms:3600000}") long accessTokenTtlMs,
+            @Value("${security.jwt.stream-token-ttl-ms:60000}") long streamTokenTtlMs,
             @Value("${security.jwt.issuer:smartjobsearch}") String issuer
     ) {
         this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
         this.accessTokenTtlMs = accessTokenTtlMs;
+        this.streamTokenTtlMs = streamTokenTtlMs;
         this.issuer = issuer;
     }
 
@@ -45,6 +50,25 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Short-lived token that only opens the application event stream. Browsers' EventSource cannot
+     * send an Authorization header, so it travels as a query parameter and must not be reusable
+     * as an access token.
+     */
+    public String generateStreamToken(Long userId, String username) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setIssuer(issuer)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + streamTokenTtlMs))
+                .setSubject(String.valueOf(userId))
+                .addClaims(Map.of(
+                        "username", username,
+                        "scope", EVENTS_SCOPE
+                ))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
 
     public Claims parseAndValidate(String token) {
         // Compatibility with older jjwt API: Jwts.parser() + setSigningKey + parseClaimsJws
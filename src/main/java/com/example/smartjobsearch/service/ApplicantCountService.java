@@ -0,0 +1,167 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.AppliedJob;
+import com.example.smartjobsearch.model.JobApplicantCount;
+import com.example.smartjobsearch.repo.JobApplicantCountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Per-job applicant counts by status. Every application write adjusts the job_applicant_count rows
+ * with an atomic upsert inside the writer's transaction; a scheduled reconciliation recounts from
+ * applied_job, one job-id range at a time, and repairs any counter that drifted.
+ */
+@Service
+public class ApplicantCountService {
+
+    private static final String ADJUST_SQL =
+        "insert into job_applicant_count (job_id, status, applicants) values (?, ?, ?) "
+            + "on duplicate key update applicants = applicants + values(applicants)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobApplicantCountRepository jobApplicantCountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${applicants.counts.reconcile-chunk:1000}")
+    private int reconcileChunk;
+
+    public void recordApplied(Long jobId, String status) {
+        adjust(jobId, status, 1);
+    }
+
+    public void recordMoved(Long jobId, String from, String to, long n) {
+        if (n <= 0 || Objects.equals(from, to)) return;
+        adjust(jobId, from, -n);
+        adjust(jobId, to, n);
+    }
+
+    public void recordRemoved(Long jobId, String status) {
+        adjust(jobId, status, -1);
+    }
+
+    /**
+     * Batched recordMoved for applications that all moved to {@code to}; each still carries its
+     * previous status. One upsert per (job, status) touched, in a single JDBC batch.
+     */
+    public void recordMoved(List<AppliedJob> apps, String to) {
+        Map<CountKey, Long> deltas = new LinkedHashMap<>();
+        for (AppliedJob app : apps) {
+            if (app.getJobId() == null || Objects.equals(app.getStatus(), to)) continue;
+            if (app.getStatus() != null) deltas.merge(new CountKey(app.getJobId(), app.getStatus()), -1L, Long::sum);
+            if (to != null) deltas.merge(new CountKey(app.getJobId(), to), 1L, Long::sum);
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((k, d) -> { if (d != 0) rows.add(new Object[] { k.jobId(), k.status(), d }); });
+        if (!rows.isEmpty()) jdbcTemplate.batchUpdate(ADJUST_SQL, rows);
+    }
+
+    private record CountKey(Long jobId, String status) {}
+
+    private void adjust(Long jobId, String status, long delta) {
+        if (jobId == null || status == null) return;
+        jdbcTemplate.update(ADJUST_SQL, jobId, status, delta);
+    }
+
+    /**
+     * jobId -> status -> applicants for the given jobs; jobs without applications are absent
+     */
+    public Map<Long, Map<String, Long>> getCounts(Collection<Long> jobIds) {
+        if (jobIds.isEmpty()) return Map.of();
+        Map<Long, Map<String, Long>> counts = new HashMap<>();
+        for (JobApplicantCount c : jobApplicantCountRepository.findByJobIdIn(jobIds)) {
+            if (c.getApplicants() > 0) counts.computeIfAbsent(c.getJobId(), k -> new TreeMap<>()).put(c.getStatus(), c.getApplicants());
+        }
+        return counts;
+    }
+
+    /**
+     * Recount from applied_job and fix only the counters that differ; returns the number repaired.
+     * Runs in job-id ranges, each in its own short transaction, so it never holds locks across the
+     * whole of applied_job.
+     */
+    @Scheduled(cron = "${applicants.counts.reconcile-cron:0 20 * * * *}")
+    public int reconcile() {
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        chunkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        int repaired = 0;
+        Long from = nextJobId(0);
+        while (from != null) {
+            long lo = from, hi = from + reconcileChunk - 1;
+            repaired += chunkTransaction.execute(status -> reconcileRange(lo, hi));
+            from = nextJobId(hi + 1);
+        }
+        if (repaired > 0) System.out.println("Applicant counts reconciled: " + repaired + " counters repaired");
+        return repaired;
+    }
+
+    // Smallest job id at or after the given one in either table; skips empty id ranges
+    private Long nextJobId(long atLeast) {
+        Long a = jdbcTemplate.queryForObject("select min(job_id) from applied_job where job_id >= ?", Long.class, atLeast);
+        Long c = jdbcTemplate.queryForObject("select min(job_id) from job_applicant_count where job_id >= ?", Long.class, atLeast);
+        if (a == null) return c;
+        return c == null ? a : Math.min(a, c);
+    }
+
+    // Both reads are plain consistent reads from one snapshot (counters first), so applied_job is
+    // never locked. Repairs are conditional on the counter still holding the value read: a delta
+    // committed since the snapshot wins and the next run re-checks that counter.
+    private int reconcileRange(long from, long to) {
+        Map<CountKey, Long> counters = new HashMap<>();
+        jdbcTemplate.query("select job_id, status, applicants from job_applicant_count where job_id between ? and ?",
+            rs -> { counters.put(new CountKey(rs.getLong(1), rs.getString(2)), rs.getLong(3)); }, from, to);
+        Map<CountKey, Long> actual = new HashMap<>();
+        jdbcTemplate.query("select job_id, status, count(*) from applied_job "
+                + "where job_id between ? and ? and status is not null group by job_id, status",
+            rs -> { actual.put(new CountKey(rs.getLong(1), rs.getString(2)), rs.getLong(3)); }, from, to);
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        actual.forEach((k, n) -> {
+            Long c = counters.get(k);
+            if (c == null) inserts.add(new Object[] { k.jobId(), k.status(), n });
+            else if (c.longValue() != n) updates.add(new Object[] { n, k.jobId(), k.status(), c });
+        });
+        counters.forEach((k, c) -> {
+            if (c != 0 && !actual.containsKey(k)) updates.add(new Object[] { 0L, k.jobId(), k.status(), c });
+        });
+        int repaired = 0;
+        if (!inserts.isEmpty()) {
+            // A row created concurrently already carries its writer's delta; leave it to the next run
+            repaired += affected(jdbcTemplate.batchUpdate("insert into job_applicant_count (job_id, status, applicants) "
+                + "values (?, ?, ?) on duplicate key update applicants = applicants", inserts));
+        }
+        if (!updates.isEmpty()) {
+            repaired += affected(jdbcTemplate.batchUpdate("update job_applicant_count set applicants = ? "
+                + "where job_id = ? and status = ? and applicants = ?", updates));
+        }
+        return repaired;
+    }
+
+    private static int affected(int[] counts) {
+        int n = 0;
+        for (int c : counts) if (c > 0) n++;
+        return n;
+    }
+
+    // Build the counters from existing applications the first time the table is empty
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (jobApplicantCountRepository.count() == 0) reconcile();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.smartjobsearch.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a job's applicants ranked best match first, ordered by (matchScore desc, id desc)
+ * with unscored applicants last. A null matchScore means the previous page ended among the unscored.
+ */
+public record ApplicantRankCursor(Double matchScore, Long id) {
+
+    public String encode() {
+        String raw = (matchScore != null ? matchScore.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token from {@link #encode()}; null or blank means the first page
+     */
+    public static ApplicantRankCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            String score = raw.substring(0, sep);
+            return new ApplicantRankCursor(score.isEmpty() ? null : Double.valueOf(score), Long.valueOf(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.AppliedJob;
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.model.User;
+import com.example.smartjobsearch.repo.AppliedJobRepository;
+import com.example.smartjobsearch.repo.JobRepository;
+import com.example.smartjobsearch.repo.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stores each applicant's match score on the application so employers get a ranked applicant list
+ * from a plain indexed read (idx_applied_job_rank, scanned backwards). New applications are scored right after they commit; a background
+ * pass rescores pending applications whose applicant profile or job changed since their last score.
+ */
+@Service
+public class ApplicantScoringService {
+
+    @Autowired
+    private AppliedJobRepository appliedJobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobRecommendationService jobRecommendationService;
+
+    @Value("${applicants.scoring.batch-size:200}")
+    private int batchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(JobSearchIndex.daemon("applicant-scoring"));
+
+    /**
+     * Score an application in the background once the current transaction (if any) commits
+     */
+    public void scoreLater(Long applicationId) {
+        if (applicationId == null) return;
+        Runnable task = () -> executor.submit(() -> {
+            try {
+                score(List.of(applicationId));
+            } catch (Exception e) {
+                System.out.println("Warning: scoring application " + applicationId + " failed: " + e.getMessage());
+            }
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${applicants.scoring.refresh-ms:60000}")
+    public void refreshStale() {
+        List<Long> ids = appliedJobRepository.findIdsNeedingScore(PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) return;
+        int scored = score(ids);
+        System.out.println("Applicant scoring refreshed " + scored + " applications");
+    }
+
+    private int score(List<Long> applicationIds) {
+        List<AppliedJob> apps = appliedJobRepository.findAllById(applicationIds);
+        if (apps.isEmpty()) return 0;
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(apps.stream().map(AppliedJob::getUserId).distinct().toList()).forEach(u -> users.put(u.getId(), u));
+        Map<Long, Job> jobs = new HashMap<>();
+        jobRepository.findAllById(apps.stream().map(AppliedJob::getJobId).distinct().toList()).forEach(j -> jobs.put(j.getId(), j));
+
+        // Score the whole batch at once so each applicant's profile is embedded once, not once per application
+        List<AppliedJob> scorable = new ArrayList<>();
+        List<User> applicants = new ArrayList<>();
+        List<Job> appliedTo = new ArrayList<>();
+        for (AppliedJob app : apps) {
+            User user = users.get(app.getUserId());
+            Job job = jobs.get(app.getJobId());
+            if (user == null || job == null) continue;
+            scorable.add(app);
+            applicants.add(user);
+            appliedTo.add(job);
+        }
+        if (scorable.isEmpty()) return 0;
+        double[] scores = jobRecommendationService.scoreApplicants(applicants, appliedTo);
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        for (int i = 0; i < scorable.size(); i++) {
+            updated += appliedJobRepository.updateMatchScore(scorable.get(i).getId(), scores[i], now);
+        }
+        return updated;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
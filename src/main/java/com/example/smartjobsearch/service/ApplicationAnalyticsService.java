@@ -0,0 +1,161 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.AppliedJob;
+import com.example.smartjobsearch.model.ApplicationRollup;
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.repo.ApplicationRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Maintains the ApplicationRollup table as applications move between statuses and answers the
+ * employer analytics endpoint from it, without reading individual applications.
+ */
+@Service
+public class ApplicationAnalyticsService {
+
+    private static final String PENDING = "Pending";
+
+    private static final String BUMP_SQL =
+        "insert into application_rollup (job_id, bucket_date, status, entered, exited, decision_seconds, timed_decisions) "
+            + "values (?, ?, ?, ?, ?, ?, ?) on duplicate key update entered = entered + values(entered), "
+            + "exited = exited + values(exited), decision_seconds = decision_seconds + values(decision_seconds), "
+            + "timed_decisions = timed_decisions + values(timed_decisions)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationRollupRepository applicationRollupRepository;
+
+    public void recordApplied(AppliedJob app) {
+        LocalDate day = app.getAppliedAt() != null ? app.getAppliedAt().toLocalDate() : LocalDate.now();
+        bump(app.getJobId(), day, app.getStatus() != null ? app.getStatus() : PENDING, 1, 0, 0, 0);
+    }
+
+    /**
+     * An application moved from {@code from} to {@code to}; decisions also record time since applying
+     */
+    public void recordTransition(AppliedJob app, String from, String to) {
+        if (Objects.equals(from, to)) return;
+        LocalDate today = LocalDate.now();
+        if (from != null) bump(app.getJobId(), today, from, 0, 1, 0, 0);
+        if (to == null) return;
+        boolean decision = PENDING.equals(from) && !PENDING.equals(to) && app.getAppliedAt() != null;
+        long seconds = decision ? Math.max(0, Duration.between(app.getAppliedAt(), LocalDateTime.now()).getSeconds()) : 0;
+        bump(app.getJobId(), today, to, 1, 0, seconds, decision ? 1 : 0);
+    }
+
+    public void recordRemoved(AppliedJob app) {
+        if (app.getStatus() != null) bump(app.getJobId(), LocalDate.now(), app.getStatus(), 0, 1, 0, 0);
+    }
+
+    private void bump(Long jobId, LocalDate day, String status, long entered, long exited, long decisionSeconds, long timedDecisions) {
+        if (jobId == null) return;
+        jdbcTemplate.update(BUMP_SQL, jobId, Date.valueOf(day), status, entered, exited, decisionSeconds, timedDecisions);
+    }
+
+    /**
+     * Batched recordTransition for applications that all moved to {@code to}; each one still carries
+     * its previous status. Writes one upsert per (job, status) touched, in a single JDBC batch.
+     */
+    public void recordTransitions(List<AppliedJob> apps, String to) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<RollupKey, long[]> deltas = new LinkedHashMap<>(); // -> {entered, exited, decisionSeconds, timedDecisions}
+        for (AppliedJob app : apps) {
+            String from = app.getStatus();
+            if (app.getJobId() == null || Objects.equals(from, to)) continue;
+            if (from != null) deltas.computeIfAbsent(new RollupKey(app.getJobId(), from), k -> new long[4])[1]++;
+            if (to == null) continue;
+            long[] d = deltas.computeIfAbsent(new RollupKey(app.getJobId(), to), k -> new long[4]);
+            d[0]++;
+            if (PENDING.equals(from) && !PENDING.equals(to) && app.getAppliedAt() != null) {
+                d[2] += Math.max(0, Duration.between(app.getAppliedAt(), now).getSeconds());
+                d[3]++;
+            }
+        }
+        if (deltas.isEmpty()) return;
+        Date today = Date.valueOf(now.toLocalDate());
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((k, d) -> rows.add(new Object[] { k.jobId(), today, k.status(), d[0], d[1], d[2], d[3] }));
+        jdbcTemplate.batchUpdate(BUMP_SQL, rows);
+    }
+
+    private record RollupKey(Long jobId, String status) {}
+
+    /**
+     * Per-job analytics for the given postings: daily applications in [from, to], current status
+     * breakdown and average time-to-decision over all history
+     */
+    public List<Map<String, Object>> getAnalytics(List<Job> jobs, LocalDate from, LocalDate to) {
+        if (jobs.isEmpty()) return List.of();
+        List<Long> jobIds = jobs.stream().map(Job::getId).toList();
+
+        Map<Long, Map<LocalDate, Long>> daily = new HashMap<>();
+        for (ApplicationRollup r : applicationRollupRepository.findByJobIdInAndBucketDateBetweenOrderByBucketDateAsc(jobIds, from, to)) {
+            if (PENDING.equals(r.getStatus()) && r.getEntered() > 0) {
+                daily.computeIfAbsent(r.getJobId(), k -> new TreeMap<>()).merge(r.getBucketDate(), r.getEntered(), Long::sum);
+            }
+        }
+        Map<Long, Map<String, Long>> statusCounts = new HashMap<>();
+        Map<Long, long[]> decisionTotals = new HashMap<>(); // jobId -> {seconds, decisions}
+        for (Object[] row : applicationRollupRepository.totalsByJobAndStatus(jobIds)) {
+            Long jobId = (Long) row[0];
+            statusCounts.computeIfAbsent(jobId, k -> new TreeMap<>()).put((String) row[1], ((Number) row[2]).longValue());
+            long[] d = decisionTotals.computeIfAbsent(jobId, k -> new long[2]);
+            d[0] += ((Number) row[3]).longValue();
+            d[1] += ((Number) row[4]).longValue();
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Job job : jobs) {
+            List<Map<String, Object>> days = new ArrayList<>();
+            long total = 0;
+            for (Map.Entry<LocalDate, Long> e : daily.getOrDefault(job.getId(), Map.of()).entrySet()) {
+                days.add(Map.of("date", e.getKey().toString(), "applications", e.getValue()));
+                total += e.getValue();
+            }
+            long[] d = decisionTotals.getOrDefault(job.getId(), new long[2]);
+            Map<String, Object> jobMap = new HashMap<>();
+            jobMap.put("job_id", job.getId());
+            jobMap.put("job_title", job.getTitle());
+            jobMap.put("applications_in_range", total);
+            jobMap.put("daily", days);
+            jobMap.put("status_breakdown", statusCounts.getOrDefault(job.getId(), Map.of()));
+            jobMap.put("decisions", d[1]);
+            jobMap.put("avg_hours_to_decision", d[1] > 0 ? Math.round(d[0] / 36.0 / d[1]) / 100.0 : null);
+            result.add(jobMap);
+        }
+        return result;
+    }
+
+    // Seed the rollups from existing applications the first time the table is empty. Decision times
+    // of historical applications are unknown, so they count in the breakdown but not in the average.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (applicationRollupRepository.count() > 0) return;
+        int pending = jdbcTemplate.update(
+            "insert into application_rollup (job_id, bucket_date, status, entered, exited, decision_seconds, timed_decisions) "
+                + "select job_id, cast(applied_at as date), 'Pending', count(*), sum(case when status <> 'Pending' then 1 else 0 end), 0, 0 "
+                + "from applied_job where job_id is not null and applied_at is not null group by job_id, cast(applied_at as date)");
+        int decided = jdbcTemplate.update(
+            "insert into application_rollup (job_id, bucket_date, status, entered, exited, decision_seconds, timed_decisions) "
+                + "select job_id, cast(applied_at as date), status, count(*), 0, 0, 0 "
+                + "from applied_job where job_id is not null and applied_at is not null and status is not null and status <> 'Pending' "
+                + "group by job_id, cast(applied_at as date), status");
+        if (pending + decided > 0) {
+            System.out.println("Application analytics backfilled " + (pending + decided) + " rollup rows");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.smartjobsearch.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in a newest-first listing of applications, ordered by (appliedAt, id). Travels as
+ * an opaque URL-safe token that clients pass back verbatim.
+ */
+public record ApplicationCursor(LocalDateTime appliedAt, Long id) {
+
+    public String encode() {
+        String raw = appliedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token from {@link #encode()}; null or blank means the first page
+     */
+    public static ApplicationCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new ApplicationCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Cursor after the last row, or null if it cannot be continued from (no appliedAt)
+     */
+    public static ApplicationCursor after(LocalDateTime appliedAt, Long id) {
+        return appliedAt != null && id != null ? new ApplicationCursor(appliedAt, id) : null;
+    }
+}
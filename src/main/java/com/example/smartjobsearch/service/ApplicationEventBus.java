@@ -0,0 +1,157 @@
+package com.example.smartjobsearch.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of application events to server-sent-event streams. Each open stream has a
+ * bounded queue drained by its own virtual thread, so an idle connection costs no platform thread.
+ * A stream whose queue fills up is closed (slow-consumer eviction) rather than slowing publishers;
+ * clients refetch on reconnect, so nothing is replayed.
+ */
+@Service
+public class ApplicationEventBus {
+
+    public static final String CREATED = "application_created";
+    public static final String STATUS_CHANGED = "application_status";
+
+    @Value("${events.sse.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${events.sse.max-streams-per-user:5}")
+    private int maxStreamsPerUser;
+
+    @Value("${events.sse.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${events.sse.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    private final ConcurrentHashMap<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Open a stream for the user; past max-streams-per-user the oldest stream is closed
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        Subscriber sub = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        List<Subscriber> excess = new ArrayList<>();
+        subscribers.compute(userId, (k, list) -> {
+            if (list == null) list = new CopyOnWriteArrayList<>();
+            list.add(sub);
+            for (int i = 0; i < list.size() - maxStreamsPerUser; i++) excess.add(list.get(i));
+            return list;
+        });
+        excess.forEach(this::close);
+        emitter.onCompletion(() -> close(sub));
+        emitter.onTimeout(() -> close(sub));
+        emitter.onError(e -> close(sub));
+        sub.thread = Thread.ofVirtual().name("sse-" + userId).start(() -> pump(sub));
+        return emitter;
+    }
+
+    /**
+     * Queue an event on the users' open streams once the current transaction (if any) commits
+     */
+    public void publish(Collection<Long> userIds, String type, Map<String, Object> data) {
+        Set<Long> recipients = new HashSet<>(userIds);
+        recipients.remove(null);
+        if (recipients.isEmpty()) return;
+        Runnable task = () -> {
+            Map<String, Object> payload = new HashMap<>(data);
+            payload.put("at", LocalDateTime.now().toString());
+            Event event = new Event(sequence.incrementAndGet(), type, payload);
+            for (Long userId : recipients) {
+                for (Subscriber sub : subscribers.getOrDefault(userId, List.of())) {
+                    if (!sub.queue.offer(event)) {
+                        System.out.println("Event stream for user " + userId + " fell behind; closing it");
+                        close(sub);
+                    }
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private void pump(Subscriber sub) {
+        try {
+            sub.emitter.send(SseEmitter.event().comment("connected"));
+            while (!sub.closed) {
+                Event event = sub.queue.poll(heartbeatSeconds, TimeUnit.SECONDS);
+                if (sub.closed) break;
+                if (event == null) {
+                    // Heartbeat keeps proxies from idling the connection out and detects dead clients
+                    sub.emitter.send(SseEmitter.event().comment("ping"));
+                } else {
+                    sub.emitter.send(SseEmitter.event().id(String.valueOf(event.id())).name(event.type()).data(event.data()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+        } finally {
+            close(sub);
+        }
+    }
+
+    private void close(Subscriber sub) {
+        subscribers.computeIfPresent(sub.userId, (k, list) -> {
+            list.remove(sub);
+            return list.isEmpty() ? null : list;
+        });
+        if (sub.closed) return;
+        sub.closed = true;
+        if (sub.thread != null && sub.thread != Thread.currentThread()) sub.thread.interrupt();
+        try {
+            sub.emitter.complete();
+        } catch (Exception ignored) {
+            // Already completed
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(list -> list.forEach(this::close));
+    }
+
+    private record Event(long id, String type, Map<String, Object> data) {}
+
+    private static final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<Event> queue;
+        volatile Thread thread;
+        volatile boolean closed;
+
+        Subscriber(Long userId, SseEmitter emitter, BlockingQueue<Event> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -2,40 +2,274 @@ package com.example.smartjobsearch.service;
 
 
 import com.example.smartjobsearch.model.AppliedJob;
+import com.example.smartjobsearch.model.Job;
 import com.example.smartjobsearch.repo.AppliedJobRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
-import java.util.Optional;
+import java.io.IOException;
+import java.util.*;
 
 @Service
 public class AppliedJobService {
+    private static final String PENDING = "Pending";
+    private static final String ACCEPTED = "Accepted";
+    private static final String REJECTED = "Rejected";
+
     private final AppliedJobRepository appliedJobRepository;
+    private final CoApplicationService coApplicationService;
+    private final JobActivityService jobActivityService;
+    private final ApplicationAnalyticsService applicationAnalyticsService;
+    private final ApplicantScoringService applicantScoringService;
+    private final AppliedJobViewService appliedJobViewService;
+    private final JobService jobService;
+    private final ApplicantCountService applicantCountService;
+    private final ApplicationEventBus applicationEventBus;
+    private final ResumeStore resumeStore;
 
     @Autowired
-    public AppliedJobService(AppliedJobRepository appliedJobRepository) {
+    public AppliedJobService(AppliedJobRepository appliedJobRepository, CoApplicationService coApplicationService,
+                             JobActivityService jobActivityService, ApplicationAnalyticsService applicationAnalyticsService,
+                             ApplicantScoringService applicantScoringService, AppliedJobViewService appliedJobViewService,
+                             JobService jobService, ApplicantCountService applicantCountService,
+                             ApplicationEventBus applicationEventBus, ResumeStore resumeStore) {
         this.appliedJobRepository = appliedJobRepository;
+        this.coApplicationService = coApplicationService;
+        this.jobActivityService = jobActivityService;
+        this.applicationAnalyticsService = applicationAnalyticsService;
+        this.applicantScoringService = applicantScoringService;
+        this.appliedJobViewService = appliedJobViewService;
+        this.jobService = jobService;
+        this.applicantCountService = applicantCountService;
+        this.applicationEventBus = applicationEventBus;
+        this.resumeStore = resumeStore;
+    }
+
+    public boolean hasApplied(Long userId, Long jobId) {
+        return appliedJobRepository.existsByUserIdAndJobId(userId, jobId);
     }
 
-    public List<AppliedJob> findByUserId(Long userId) {
-        return appliedJobRepository.findByUserId(userId);
+    /**
+     * A job's applications best-matching applicant first, {@code limit} at a time after {@code cursor} (null for the first page)
+     */
+    public RankedPage findByJobIdRanked(Long jobId, String status, ApplicantRankCursor cursor, int limit) {
+        List<AppliedJob> rows = appliedJobRepository.findByJobIdRanked(jobId, status,
+            cursor != null ? cursor.matchScore() : null, cursor != null ? cursor.id() : null, PageRequest.of(0, limit + 1));
+        if (rows.size() <= limit) return new RankedPage(rows, null);
+        AppliedJob last = rows.get(limit - 1);
+        return new RankedPage(rows.subList(0, limit), new ApplicantRankCursor(last.getMatchScore(), last.getId()));
     }
 
-    public List<AppliedJob> findByJobId(Long jobId) {
-        return appliedJobRepository.findByJobId(jobId);
+    public record RankedPage(List<AppliedJob> applications, ApplicantRankCursor nextCursor) {}
+
+    /**
+     * A job's applications newest first, {@code limit} at a time after {@code cursor} (null for the first page)
+     */
+    public ApplicationPage findPageByJob(Long jobId, String status, ApplicationCursor cursor, int limit) {
+        List<AppliedJob> rows = appliedJobRepository.findPageByJob(jobId, status,
+            cursor != null ? cursor.appliedAt() : null, cursor != null ? cursor.id() : null, PageRequest.of(0, limit + 1));
+        if (rows.size() <= limit) return new ApplicationPage(rows, null);
+        AppliedJob last = rows.get(limit - 1);
+        return new ApplicationPage(rows.subList(0, limit), ApplicationCursor.after(last.getAppliedAt(), last.getId()));
     }
 
+    public record ApplicationPage(List<AppliedJob> applications, ApplicationCursor nextCursor) {}
+
+    @Transactional
     public AppliedJob save(AppliedJob appliedJob) {
-        return appliedJobRepository.save(appliedJob);
+        boolean isNew = appliedJob.getId() == null;
+        AppliedJob saved = appliedJobRepository.save(appliedJob);
+        if (isNew) {
+            coApplicationService.recordApplication(saved.getUserId(), saved.getJobId());
+            jobActivityService.recordApplication(saved.getJobId());
+            applicationAnalyticsService.recordApplied(saved);
+            applicantCountService.recordApplied(saved.getJobId(), saved.getStatus());
+            applicantScoringService.scoreLater(saved.getId());
+            appliedJobViewService.applicationSaved(saved);
+            applicationEventBus.publish(Arrays.asList(saved.getUserId(), employerOf(saved.getJobId())),
+                ApplicationEventBus.CREATED, eventData(saved));
+        }
+        return saved;
+    }
+
+    /**
+     * Change an application's status; status changes must go through here to keep the analytics
+     * rollups in step
+     */
+    @Transactional
+    public AppliedJob updateStatus(AppliedJob application, String status) {
+        String previous = application.getStatus();
+        checkLeavesAccepted(List.of(application), status);
+        application.setStatus(status);
+        AppliedJob saved = appliedJobRepository.save(application);
+        applicationAnalyticsService.recordTransition(saved, previous, status);
+        applicantCountService.recordMoved(saved.getJobId(), previous, status, 1);
+        appliedJobViewService.statusChanged(saved.getId(), status);
+        applicationEventBus.publish(Arrays.asList(saved.getUserId(), employerOf(saved.getJobId())),
+            ApplicationEventBus.STATUS_CHANGED, eventData(saved));
+        return saved;
+    }
+
+    /**
+     * Accept an application, close its job and reject the job's other pending applications, all in
+     * one transaction and a fixed number of statements. The job and application versions make the
+     * loser of two concurrent approvals fail with an OptimisticLockingFailureException; approving
+     * on a job that is already filled throws IllegalStateException.
+     */
+    @Transactional
+    public AppliedJob approve(Long applicationId) {
+        AppliedJob application = appliedJobRepository.findById(applicationId)
+            .orElseThrow(() -> new NoSuchElementException("Application not found"));
+        Job job = jobService.getJobById(application.getJobId())
+            .orElseThrow(() -> new NoSuchElementException("Job not found"));
+        if (ACCEPTED.equals(application.getStatus())) return application;
+        if ("CLOSED".equals(job.getStatus())) throw new IllegalStateException("This job has already been filled");
+
+        AppliedJob accepted = updateStatus(application, ACCEPTED);
+        job.setStatus("CLOSED");
+        jobService.saveJob(job);
+        // Write the versioned rows now so a concurrent approval is detected before anything else changes
+        appliedJobRepository.flush();
+
+        List<AppliedJob> competing = appliedJobRepository.findByJobIdAndStatusAndIdNot(job.getId(), PENDING, applicationId);
+        if (!competing.isEmpty()) {
+            appliedJobRepository.updateStatusForJob(job.getId(), PENDING, REJECTED, applicationId);
+            applicantCountService.recordMoved(competing, REJECTED);
+            applicationAnalyticsService.recordTransitions(competing, REJECTED);
+            appliedJobViewService.statusChangedForJob(job.getId(), PENDING, REJECTED, applicationId);
+            publishStatusChanged(competing, REJECTED, job.getPostedBy());
+        }
+        return accepted;
+    }
+
+    /**
+     * Move a batch of applications to {@code status}. Ownership of every id is checked in one query;
+     * if any id is missing or on another employer's job nothing changes and those ids are returned.
+     * Accepting goes through approve (at most one application per job); other statuses are written
+     * with one UPDATE per previous status, and the rollups and read model are updated once for the
+     * whole batch. An application whose status changed since it was read fails the batch with an
+     * OptimisticLockingFailureException; an accepted application on a closed job cannot be moved.
+     */
+    @Transactional
+    public BulkStatusResult updateStatusBulk(Long employerId, Collection<Long> applicationIds, String status) {
+        Set<Long> ids = new LinkedHashSet<>(applicationIds);
+        List<AppliedJob> owned = appliedJobRepository.findOwnedByEmployer(ids, employerId);
+        if (owned.size() < ids.size()) {
+            Set<Long> denied = new LinkedHashSet<>(ids);
+            owned.forEach(app -> denied.remove(app.getId()));
+            return new BulkStatusResult(0, 0, List.copyOf(denied));
+        }
+
+        List<AppliedJob> changed = owned.stream().filter(app -> !status.equals(app.getStatus())).toList();
+        checkLeavesAccepted(changed, status);
+        if (ACCEPTED.equals(status)) {
+            if (changed.stream().map(AppliedJob::getJobId).distinct().count() < changed.size()) {
+                throw new IllegalArgumentException("Only one application per job can be accepted");
+            }
+            changed.forEach(app -> approve(app.getId()));
+        } else if (!changed.isEmpty()) {
+            List<Long> changedIds = changed.stream().map(AppliedJob::getId).toList();
+            // The statuses above were read without locks; each group only moves if it still has the
+            // status the rollups and counters are about to be corrected for
+            Map<String, List<Long>> idsByPrevious = new HashMap<>();
+            for (AppliedJob app : changed) idsByPrevious.computeIfAbsent(app.getStatus(), k -> new ArrayList<>()).add(app.getId());
+            for (Map.Entry<String, List<Long>> group : idsByPrevious.entrySet()) {
+                if (appliedJobRepository.updateStatusByIds(group.getValue(), group.getKey(), status) != group.getValue().size()) {
+                    throw new OptimisticLockingFailureException("Applications changed status during the bulk update");
+                }
+            }
+            applicationAnalyticsService.recordTransitions(changed, status);
+            applicantCountService.recordMoved(changed, status);
+            appliedJobViewService.statusChanged(changedIds, status);
+            publishStatusChanged(changed, status, employerId);
+        }
+        return new BulkStatusResult(changed.size(), owned.size() - changed.size(), List.of());
+    }
+
+    public record BulkStatusResult(int updated, int unchanged, List<Long> deniedIds) {}
+
+    // An accepted application is what keeps its job CLOSED; it may only move once the job is reopened
+    private void checkLeavesAccepted(List<AppliedJob> apps, String status) {
+        if (ACCEPTED.equals(status)) return;
+        for (AppliedJob app : apps) {
+            if (ACCEPTED.equals(app.getStatus()) && jobService.getJobById(app.getJobId())
+                    .map(job -> "CLOSED".equals(job.getStatus())).orElse(false)) {
+                throw new IllegalStateException("Application " + app.getId() + " was accepted; reopen its job before changing it");
+            }
+        }
+    }
+
+    // One event per applicant, and a single event for the employer covering the whole batch
+    private void publishStatusChanged(List<AppliedJob> apps, String status, Long employerId) {
+        for (AppliedJob app : apps) {
+            Map<String, Object> data = eventData(app);
+            data.put("status", status);
+            applicationEventBus.publish(Collections.singletonList(app.getUserId()), ApplicationEventBus.STATUS_CHANGED, data);
+        }
+        Map<String, Object> batch = new HashMap<>();
+        batch.put("application_ids", apps.stream().map(AppliedJob::getId).toList());
+        batch.put("status", status);
+        applicationEventBus.publish(Collections.singletonList(employerId), ApplicationEventBus.STATUS_CHANGED, batch);
+    }
+
+    private Map<String, Object> eventData(AppliedJob app) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("application_id", app.getId());
+        data.put("job_id", app.getJobId());
+        data.put("job_title", app.getJobTitle());
+        data.put("status", app.getStatus());
+        return data;
+    }
+
+    // The stored body may be shared with other applications; drop this one's reference only once the delete is final
+    private void releaseResumeAfterCommit(String resumeKey) {
+        Runnable task = () -> {
+            try {
+                resumeStore.release(resumeKey);
+            } catch (IOException e) {
+                System.out.println("Warning: releasing resume " + resumeKey + " failed: " + e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private Long employerOf(Long jobId) {
+        return jobId != null ? jobService.getJobById(jobId).map(Job::getPostedBy).orElse(null) : null;
+    }
+
+    public void updateResume(Long id, String resumeKey, String resumeFileName) {
+        appliedJobRepository.updateResume(id, resumeKey, resumeFileName);
     }
 
     public Optional<AppliedJob> findById(Long id) {
         return appliedJobRepository.findById(id);
     }
 
+    @Transactional
     public void deleteById(Long id) {
+        Optional<AppliedJob> existing = appliedJobRepository.findById(id);
         appliedJobRepository.deleteById(id);
+        existing.ifPresent(app -> {
+            coApplicationService.removeApplication(app.getUserId(), app.getJobId());
+            applicationAnalyticsService.recordRemoved(app);
+            applicantCountService.recordRemoved(app.getJobId(), app.getStatus());
+            appliedJobViewService.applicationRemoved(app.getId());
+            if (app.getResumeKey() != null) releaseResumeAfterCommit(app.getResumeKey());
+        });
     }
 }
 
@@ -0,0 +1,145 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.AppliedJob;
+import com.example.smartjobsearch.model.AppliedJobView;
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.repo.AppliedJobViewRepository;
+import com.example.smartjobsearch.repo.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains the AppliedJobView read model (called from the application and job write paths, inside
+ * their transactions) and serves the seeker's applied / approved pages from it.
+ */
+@Service
+public class AppliedJobViewService {
+
+    public static final String ACCEPTED = "Accepted";
+
+    @Autowired
+    private AppliedJobViewRepository appliedJobViewRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * One page of the user's applications with the given status, or all but Accepted when status is
+     * null, newest first. With a cursor the page is the {@code size} rows after it; without one it is
+     * page number {@code page}. nextCursor continues after the page, or is null on the last one.
+     */
+    public AppliedPage findApplied(Long userId, String status, ApplicationCursor cursor, int page, int size) {
+        List<AppliedJobView> rows;
+        boolean hasMore;
+        if (cursor != null) {
+            rows = findApplied(userId, status, cursor, PageRequest.of(0, size + 1));
+            hasMore = rows.size() > size;
+            if (hasMore) rows = rows.subList(0, size);
+        } else {
+            rows = findApplied(userId, status, null, PageRequest.of(page, size));
+            // Probe the first row of the next page; fetching size + 1 here would shift every later page
+            long nextOffset = ((long) page + 1) * size;
+            hasMore = rows.size() == size && nextOffset <= Integer.MAX_VALUE
+                && !findApplied(userId, status, null, PageRequest.of((int) nextOffset, 1)).isEmpty();
+        }
+        ApplicationCursor next = null;
+        if (hasMore) {
+            AppliedJobView last = rows.get(rows.size() - 1);
+            next = ApplicationCursor.after(last.getAppliedAt(), last.getApplicationId());
+        }
+        return new AppliedPage(rows, next);
+    }
+
+    public record AppliedPage(List<AppliedJobView> views, ApplicationCursor nextCursor) {}
+
+    private List<AppliedJobView> findApplied(Long userId, String status, ApplicationCursor cursor, PageRequest pageable) {
+        LocalDateTime afterAt = cursor != null ? cursor.appliedAt() : null;
+        Long afterId = cursor != null ? cursor.id() : null;
+        return status != null
+            ? appliedJobViewRepository.findByUserAndStatus(userId, status, afterAt, afterId, pageable)
+            : appliedJobViewRepository.findByUserExcludingStatus(userId, ACCEPTED, afterAt, afterId, pageable);
+    }
+
+    /**
+     * The user's accepted applications whose job still exists
+     */
+    public List<AppliedJobView> findApproved(Long userId, int page, int size) {
+        return appliedJobViewRepository.findLiveByUserAndStatus(userId, ACCEPTED, PageRequest.of(page, size));
+    }
+
+    public void applicationSaved(AppliedJob app) {
+        AppliedJobView view = new AppliedJobView();
+        view.setApplicationId(app.getId());
+        view.setUserId(app.getUserId());
+        view.setJobId(app.getJobId());
+        view.setStatus(app.getStatus());
+        view.setAppliedAt(app.getAppliedAt());
+        Job job = app.getJobId() != null ? jobRepository.findById(app.getJobId()).orElse(null) : null;
+        if (job != null) {
+            copyJob(view, job);
+        } else {
+            view.setJobTitle(app.getJobTitle());
+            view.setCompany(app.getCompany());
+            view.setJobDeleted(true);
+        }
+        appliedJobViewRepository.save(view);
+    }
+
+    public void statusChanged(Long applicationId, String status) {
+        appliedJobViewRepository.updateStatus(applicationId, status);
+    }
+
+    public void statusChangedForJob(Long jobId, String from, String to, Long exceptApplicationId) {
+        appliedJobViewRepository.updateStatusForJob(jobId, from, to, exceptApplicationId);
+    }
+
+    public void statusChanged(Collection<Long> applicationIds, String status) {
+        appliedJobViewRepository.updateStatusByIds(applicationIds, status);
+    }
+
+    public void applicationRemoved(Long applicationId) {
+        appliedJobViewRepository.deleteById(applicationId);
+    }
+
+    public void jobUpdated(Job job) {
+        appliedJobViewRepository.updateJob(job.getId(), job.getTitle(), job.getCompany(), job.getLocation(),
+            job.getSalary(), job.getDescription());
+    }
+
+    public void jobDeleted(Long jobId) {
+        appliedJobViewRepository.markJobDeleted(jobId);
+    }
+
+    private static void copyJob(AppliedJobView view, Job job) {
+        view.setJobTitle(job.getTitle());
+        view.setCompany(job.getCompany());
+        view.setLocation(job.getLocation());
+        view.setSalary(job.getSalary());
+        view.setDescription(job.getDescription());
+    }
+
+    // Build the read model from existing applications the first time it is empty
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (appliedJobViewRepository.count() > 0) return;
+        int rows = jdbcTemplate.update(
+            "insert into applied_job_view (application_id, user_id, job_id, status, applied_at, job_title, company, location, salary, description, job_deleted) "
+                + "select a.id, a.user_id, a.job_id, a.status, a.applied_at, coalesce(j.title, a.job_title), coalesce(j.company, a.company), "
+                + "j.location, j.salary, j.description, case when j.id is null then true else false end "
+                + "from applied_job a left join job j on j.id = a.job_id");
+        if (rows > 0) System.out.println("Applied jobs read model backfilled " + rows + " rows");
+    }
+}
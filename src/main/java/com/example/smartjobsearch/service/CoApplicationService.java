@@ -0,0 +1,183 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.repo.AppliedJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Item-to-item collaborative filtering over application history ("people who applied here also
+ * applied to..."). Keeps a sparse user x job matrix built from AppliedJob rows and the top-N
+ * co-applied neighbours per job by cosine similarity of their applicant sets. Application changes
+ * are applied after their transaction commits, on a background thread, so applying never waits on
+ * the neighbour recompute and a rolled-back application never reaches the matrix.
+ */
+@Service
+public class CoApplicationService {
+
+    @Autowired
+    private AppliedJobRepository appliedJobRepository;
+
+    @Value("${recommendation.cf.neighbours:20}")
+    private int neighbours;
+
+    // Sparse matrix stored both ways: job -> applicants and user -> applied jobs
+    private final Map<Long, Set<Long>> applicantsByJob = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> jobsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, Double>> neighboursByJob = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    private record Change(Long userId, Long jobId, boolean added) {}
+
+    // Committed changes not yet applied; drained in one pass so a burst on a popular job recomputes once
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private ExecutorService updater = Executors.newSingleThreadExecutor(JobSearchIndex.daemon("co-application"));
+
+    /**
+     * Co-applied neighbours of a job with their cosine similarity, best first
+     */
+    public Map<Long, Double> getNeighbours(Long jobId) {
+        ensureLoaded();
+        return neighboursByJob.getOrDefault(jobId, Map.of());
+    }
+
+    /**
+     * Collaborative score per job for a user: the sum of neighbour similarities over the jobs the
+     * user applied to, normalised to [0,1]. Jobs the user already applied to are left out.
+     */
+    public Map<Long, Double> scoresForUser(Long userId) {
+        ensureLoaded();
+        Set<Long> applied = jobsByUser.getOrDefault(userId, Set.of());
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long jobId : applied) {
+            for (Map.Entry<Long, Double> n : neighboursByJob.getOrDefault(jobId, Map.of()).entrySet()) {
+                if (!applied.contains(n.getKey())) scores.merge(n.getKey(), n.getValue(), Double::sum);
+            }
+        }
+        double max = scores.values().stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
+        if (max > 0) scores.replaceAll((k, v) -> v / max);
+        return scores;
+    }
+
+    /**
+     * Record a new application once the current transaction commits; only the job and the jobs
+     * that share an applicant with it are recomputed
+     */
+    public void recordApplication(Long userId, Long jobId) {
+        afterCommit(new Change(userId, jobId, true));
+    }
+
+    public void removeApplication(Long userId, Long jobId) {
+        afterCommit(new Change(userId, jobId, false));
+    }
+
+    private void afterCommit(Change change) {
+        if (!loaded || change.userId() == null || change.jobId() == null) return;
+        Runnable enqueue = () -> {
+            pending.add(change);
+            updater.submit(this::applyPending);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue.run();
+                }
+            });
+        } else {
+            enqueue.run();
+        }
+    }
+
+    // Similarity is normalised by both applicant counts, so when a job gains or loses an applicant
+    // every job co-applied with it changes too, not only the user's own jobs
+    private synchronized void applyPending() {
+        Set<Long> affected = new HashSet<>();
+        for (Change c; (c = pending.poll()) != null; ) {
+            boolean changed;
+            if (c.added()) {
+                changed = jobsByUser.computeIfAbsent(c.userId(), k -> ConcurrentHashMap.newKeySet()).add(c.jobId());
+                if (changed) applicantsByJob.computeIfAbsent(c.jobId(), k -> ConcurrentHashMap.newKeySet()).add(c.userId());
+            } else {
+                Set<Long> jobs = jobsByUser.get(c.userId());
+                changed = jobs != null && jobs.remove(c.jobId());
+                Set<Long> applicants = applicantsByJob.get(c.jobId());
+                if (changed && applicants != null) applicants.remove(c.userId());
+            }
+            if (!changed) continue;
+            affected.add(c.jobId());
+            affected.addAll(jobsByUser.getOrDefault(c.userId(), Set.of()));
+            for (Long applicant : applicantsByJob.getOrDefault(c.jobId(), Set.of())) {
+                affected.addAll(jobsByUser.getOrDefault(applicant, Set.of()));
+            }
+        }
+        if (affected.isEmpty()) return;
+        affected.parallelStream().forEach(j -> neighboursByJob.put(j, computeNeighbours(j)));
+    }
+
+    /**
+     * Rebuild the matrix from the repository and recompute every job's neighbours in parallel
+     */
+    public synchronized void rebuild() {
+        applicantsByJob.clear();
+        jobsByUser.clear();
+        for (Object[] row : appliedJobRepository.findAllUserJobPairs()) {
+            Long userId = (Long) row[0];
+            Long jobId = (Long) row[1];
+            if (userId == null || jobId == null) continue;
+            applicantsByJob.computeIfAbsent(jobId, k -> ConcurrentHashMap.newKeySet()).add(userId);
+            jobsByUser.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(jobId);
+        }
+        Map<Long, Map<Long, Double>> computed = new ConcurrentHashMap<>();
+        applicantsByJob.keySet().parallelStream().forEach(j -> computed.put(j, computeNeighbours(j)));
+        neighboursByJob.clear();
+        neighboursByJob.putAll(computed);
+        loaded = true;
+        System.out.println("CoApplicationService - built neighbours for " + computed.size() + " jobs from "
+            + jobsByUser.size() + " applicants");
+    }
+
+    /**
+     * Sparse dot products of the job's applicant column against every co-applied job's column
+     */
+    private Map<Long, Double> computeNeighbours(Long jobId) {
+        Set<Long> applicants = applicantsByJob.getOrDefault(jobId, Set.of());
+        if (applicants.isEmpty()) return Map.of();
+        Map<Long, Integer> coCounts = new HashMap<>();
+        for (Long user : applicants) {
+            for (Long other : jobsByUser.getOrDefault(user, Set.of())) {
+                if (!other.equals(jobId)) coCounts.merge(other, 1, Integer::sum);
+            }
+        }
+        Map<Long, Double> sims = new HashMap<>();
+        for (Map.Entry<Long, Integer> e : coCounts.entrySet()) {
+            int otherSize = applicantsByJob.getOrDefault(e.getKey(), Set.of()).size();
+            if (otherSize == 0) continue;
+            sims.put(e.getKey(), e.getValue() / Math.sqrt((double) applicants.size() * otherSize));
+        }
+        Map<Long, Double> top = new LinkedHashMap<>();
+        for (Long id : JobSearchIndex.topK(sims, neighbours)) top.put(id, sims.get(id));
+        return Collections.unmodifiableMap(top);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (!loaded) rebuild();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdownNow();
+    }
+}
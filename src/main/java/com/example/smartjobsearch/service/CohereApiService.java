@@ -19,19 +19,39 @@ public class CohereApiService {
     @SuppressWarnings("unused")
     private static final String UNUSED_NOTE = "API_URL kept for future real integration";
 
+    // Texts per embed request accepted by the Cohere API
+    private static final int MAX_TEXTS_PER_CALL = 96;
+
     public List<Double> getEmbedding(String text) {
+        return getEmbeddings(java.util.Collections.singletonList(text)).get(0);
+    }
+
+    /**
+     * Embeddings for many texts, in order, with one API call per 96 texts. A chunk whose call
+     * fails falls back to mock embeddings, as a single embedding does.
+     */
+    public List<List<Double>> getEmbeddings(List<String> texts) {
         // If API key is not configured, fall back to deterministic mock embedding
         if (apiKey == null || apiKey.trim().isEmpty()) {
             System.out.println("Cohere API key missing; using mock embedding");
-            return generateMockEmbedding(text);
+            List<List<Double>> mock = new ArrayList<>(texts.size());
+            for (String text : texts) mock.add(generateMockEmbedding(text));
+            return mock;
         }
+        List<List<Double>> out = new ArrayList<>(texts.size());
+        for (int from = 0; from < texts.size(); from += MAX_TEXTS_PER_CALL) {
+            out.addAll(embedChunk(texts.subList(from, Math.min(texts.size(), from + MAX_TEXTS_PER_CALL))));
+        }
+        return out;
+    }
 
+    private List<List<Double>> embedChunk(List<String> texts) {
         try {
             org.springframework.web.client.RestTemplate rest = new org.springframework.web.client.RestTemplate();
             java.util.Map<String, Object> payload = new java.util.HashMap<>();
             // Cohere expects a list of texts
             payload.put("model", embeddingModel);
-            payload.put("texts", java.util.Collections.singletonList(text));
+            payload.put("texts", texts);
 
             org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
             headers.set("Authorization", "Bearer " + apiKey);
@@ -47,39 +67,43 @@ public class CohereApiService {
             }
 
             Object embeddingsObj = resp.get("embeddings");
-            if (embeddingsObj instanceof java.util.List) {
+            if (embeddingsObj instanceof java.util.List && ((java.util.List<?>) embeddingsObj).size() == texts.size()) {
                 java.util.List<?> embList = (java.util.List<?>) embeddingsObj;
-                if (!embList.isEmpty()) {
-                    Object first = embList.get(0);
+                List<List<Double>> out = new ArrayList<>(texts.size());
+                for (int i = 0; i < texts.size(); i++) {
+                    Object item = embList.get(i);
                     java.util.List<Number> vector = null;
-                    if (first instanceof java.util.List) {
+                    if (item instanceof java.util.List) {
                         // shape: { "embeddings": [[0.1, 0.2, ...]] }
-                        vector = (java.util.List<Number>) first;
-                    } else if (first instanceof java.util.Map) {
+                        vector = (java.util.List<Number>) item;
+                    } else if (item instanceof java.util.Map) {
                         // shape: { "embeddings": [ { "embedding": [...] } ] }
-                        Object inner = ((java.util.Map<?,?>) first).get("embedding");
+                        Object inner = ((java.util.Map<?,?>) item).get("embedding");
                         if (inner instanceof java.util.List) {
                             vector = (java.util.List<Number>) inner;
                         }
                     }
 
                     if (vector != null) {
-                        java.util.List<Double> out = new java.util.ArrayList<>(vector.size());
-                        for (Number n : vector) out.add(n.doubleValue());
-                        return out;
+                        java.util.List<Double> converted = new java.util.ArrayList<>(vector.size());
+                        for (Number n : vector) converted.add(n.doubleValue());
+                        out.add(converted);
+                    } else {
+                        out.add(generateMockEmbedding(texts.get(i)));
                     }
                 }
+                return out;
             }
 
             // If response shape unexpected, fall back to mock
             System.err.println("Unexpected embedding response format from Cohere; falling back to mock");
-            return generateMockEmbedding(text);
-
         } catch (Exception e) {
             System.err.println("Cohere embed call failed: " + e.getMessage());
             e.printStackTrace();
-            return generateMockEmbedding(text);
         }
+        List<List<Double>> mock = new ArrayList<>(texts.size());
+        for (String text : texts) mock.add(generateMockEmbedding(text));
+        return mock;
     }
     
     private List<Double> generateMockEmbedding(String text) {
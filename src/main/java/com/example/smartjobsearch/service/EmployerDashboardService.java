@@ -0,0 +1,115 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.repo.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Employer view of posted jobs with their applicants, loaded with a fixed number of queries: a page
+ * of the employer's jobs, one projection of the top applicants per job (joined with the applicant's
+ * username, capped per job with a window function) and one read of the per-job applicant counters.
+ */
+@Service
+public class EmployerDashboardService {
+
+    private static final String APPLICANTS_SQL =
+        "select t.job_id, t.id, t.username, t.status, t.applied_at, t.match_score from ("
+            + " select a.job_id, a.id, u.username, a.status, a.applied_at, a.match_score,"
+            + " row_number() over (partition by a.job_id"
+            + "   order by a.match_score desc, a.id desc) as rn" // same order as AppliedJobRepository.findByJobIdRanked
+            + " from applied_job a left join user u on u.id = a.user_id"
+            + " where a.job_id in (:jobIds)%s"
+            + ") t where t.rn <= :cap order by t.job_id, t.rn";
+
+    // Materialized by ApplicantCountService, so counting never scans applied_job
+    private static final String COUNTS_SQL =
+        "select a.job_id, sum(a.applicants) from job_applicant_count a where a.job_id in (:jobIds)%s group by a.job_id";
+
+    private static final String STATUS_FILTER = " and a.status = :status";
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * One page of the employer's jobs (newest first), each with up to {@code applicantsPerJob}
+     * applicants ranked by match score and the job's applicant count. Pages are addressed by
+     * {@code afterJobId} (keyset, from the previous page's nextCursor) or, without it, by page number.
+     * A non-null {@code status} limits applicants and counts to that status.
+     */
+    public PostedApplicationsPage getPostedApplications(Long employerId, Long afterJobId, int page, int size,
+                                                        int applicantsPerJob, String status) {
+        List<Job> jobs;
+        long totalJobs;
+        boolean hasMore;
+        if (afterJobId != null) {
+            List<Job> rows = jobRepository.findPageByPostedBy(employerId, null, afterJobId, PageRequest.of(0, size + 1));
+            hasMore = rows.size() > size;
+            jobs = hasMore ? rows.subList(0, size) : rows;
+            totalJobs = jobRepository.countByPostedBy(employerId);
+        } else {
+            Page<Job> result = jobRepository.findByPostedBy(employerId, PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id")));
+            jobs = result.getContent();
+            hasMore = result.hasNext();
+            totalJobs = result.getTotalElements();
+        }
+        if (jobs.isEmpty()) return new PostedApplicationsPage(List.of(), totalJobs, null);
+        Long nextCursor = hasMore ? jobs.get(jobs.size() - 1).getId() : null;
+
+        List<Long> jobIds = jobs.stream().map(Job::getId).toList();
+        MapSqlParameterSource params = new MapSqlParameterSource("jobIds", jobIds).addValue("cap", applicantsPerJob);
+        String filter = "";
+        if (status != null) {
+            params.addValue("status", status);
+            filter = STATUS_FILTER;
+        }
+
+        Map<Long, List<Map<String, Object>>> applicantsByJob = new HashMap<>();
+        namedParameterJdbcTemplate.query(APPLICANTS_SQL.formatted(filter), params, rs -> {
+            Map<String, Object> appMap = new HashMap<>();
+            appMap.put("application_id", rs.getLong("id"));
+            String username = rs.getString("username");
+            appMap.put("username", username != null ? username : "Unknown");
+            appMap.put("status", rs.getString("status"));
+            Timestamp appliedAt = rs.getTimestamp("applied_at");
+            appMap.put("applied_at", appliedAt != null ? appliedAt.toLocalDateTime().toString() : "");
+            double score = rs.getDouble("match_score");
+            appMap.put("match_score", rs.wasNull() ? null : score);
+            applicantsByJob.computeIfAbsent(rs.getLong("job_id"), k -> new ArrayList<>()).add(appMap);
+        });
+
+        Map<Long, Long> counts = new HashMap<>();
+        namedParameterJdbcTemplate.query(COUNTS_SQL.formatted(filter), params, rs -> {
+            counts.put(rs.getLong(1), rs.getLong(2));
+        });
+
+        List<Map<String, Object>> result = new ArrayList<>(jobIds.size());
+        for (Job job : jobs) {
+            Map<String, Object> jobMap = new HashMap<>();
+            jobMap.put("job_id", job.getId());
+            jobMap.put("job_title", job.getTitle());
+            jobMap.put("job_type", job.getJobType());
+            jobMap.put("company", job.getCompany());
+            jobMap.put("location", job.getLocation());
+            jobMap.put("salary", job.getSalary());
+            jobMap.put("description", job.getDescription());
+            jobMap.put("applicant_count", counts.getOrDefault(job.getId(), 0L));
+            jobMap.put("applicants", applicantsByJob.getOrDefault(job.getId(), List.of()));
+            result.add(jobMap);
+        }
+        return new PostedApplicationsPage(result, totalJobs, nextCursor);
+    }
+
+    public record PostedApplicationsPage(List<Map<String, Object>> jobs, long totalJobs, Long nextCursor) {}
+}
@@ -0,0 +1,232 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.model.JobStats;
+import com.example.smartjobsearch.repo.JobStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Job view and application counters. Request threads only bump striped LongAdders; a scheduled
+ * flush drains them, writes the deltas to job_stats in one batched upsert, and feeds them into the
+ * trending window. The window is a ring of time buckets, each with a count-min sketch and a small
+ * heavy-hitters set. The trending list is rebuilt on every flush, so reading it is free.
+ */
+@Service
+public class JobActivityService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobStatsRepository jobStatsRepository;
+
+    @Autowired
+    private JobSearchIndex jobSearchIndex;
+
+    @Value("${jobs.trending.apply-weight:5}")
+    private long applyWeight;
+
+    @Value("${jobs.trending.size:50}")
+    private int trendingSize;
+
+    private final ConcurrentHashMap<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> pendingApplications = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+    private long currentBucketStart;
+    private volatile List<TrendingJob> trending = List.of();
+
+    public JobActivityService(@Value("${jobs.trending.bucket-seconds:300}") long bucketSeconds,
+                              @Value("${jobs.trending.buckets:12}") int bucketCount,
+                              @Value("${jobs.trending.sketch-width:2048}") int sketchWidth,
+                              @Value("${jobs.trending.sketch-depth:4}") int sketchDepth,
+                              @Value("${jobs.trending.heavy-hitters:100}") int heavyHitters) {
+        this.bucketMillis = bucketSeconds * 1000L;
+        this.buckets = new Bucket[Math.max(1, bucketCount)];
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new Bucket(sketchWidth, sketchDepth, heavyHitters);
+        this.currentBucketStart = System.currentTimeMillis() / bucketMillis * bucketMillis;
+    }
+
+    public void recordView(Long jobId) {
+        if (jobId != null) pendingViews.computeIfAbsent(jobId, k -> new LongAdder()).increment();
+    }
+
+    public void recordApplication(Long jobId) {
+        if (jobId != null) pendingApplications.computeIfAbsent(jobId, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Most active open jobs over the sliding window, as of the last flush
+     */
+    public List<TrendingJob> getTrending(int limit) {
+        List<TrendingJob> snapshot = trending;
+        return snapshot.subList(0, Math.min(limit, snapshot.size()));
+    }
+
+    public Optional<JobStats> getStats(Long jobId) {
+        return jobStatsRepository.findById(jobId);
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.activity.flush-ms:5000}")
+    public void flush() {
+        if (!flushing.compareAndSet(false, true)) return;
+        try {
+            Map<Long, long[]> deltas = new HashMap<>(); // jobId -> {views, applications}
+            drain(pendingViews, deltas, 0);
+            drain(pendingApplications, deltas, 1);
+            if (!deltas.isEmpty()) {
+                try {
+                    writeStats(deltas);
+                } catch (Exception e) {
+                    // Put the counts back so the next flush retries them
+                    deltas.forEach((jobId, d) -> {
+                        if (d[0] > 0) pendingViews.computeIfAbsent(jobId, k -> new LongAdder()).add(d[0]);
+                        if (d[1] > 0) pendingApplications.computeIfAbsent(jobId, k -> new LongAdder()).add(d[1]);
+                    });
+                    System.out.println("Warning: job stats flush failed: " + e.getMessage());
+                }
+            }
+            rotate(System.currentTimeMillis());
+            Bucket current = buckets[bucketIndex(currentBucketStart)];
+            deltas.forEach((jobId, d) -> current.add(jobId, d[0] + applyWeight * d[1]));
+            trending = computeTrending();
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    private static void drain(Map<Long, LongAdder> pending, Map<Long, long[]> deltas, int slot) {
+        for (Map.Entry<Long, LongAdder> e : pending.entrySet()) {
+            long n = e.getValue().sumThenReset();
+            if (n > 0) deltas.computeIfAbsent(e.getKey(), k -> new long[2])[slot] += n;
+        }
+    }
+
+    private void writeStats(Map<Long, long[]> deltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((jobId, d) -> rows.add(new Object[] { jobId, d[0], d[1], now }));
+        jdbcTemplate.batchUpdate(
+            "insert into job_stats (job_id, views, applications, updated_at) values (?, ?, ?, ?) "
+                + "on duplicate key update views = views + values(views), applications = applications + values(applications), "
+                + "updated_at = values(updated_at)", rows);
+    }
+
+    // Clear buckets that slid out of the window since the last flush
+    private void rotate(long nowMillis) {
+        long start = nowMillis / bucketMillis * bucketMillis;
+        if (start == currentBucketStart) return;
+        long steps = Math.min(buckets.length, (start - currentBucketStart) / bucketMillis);
+        for (long s = 1; s <= steps; s++) buckets[bucketIndex(currentBucketStart + s * bucketMillis)].clear();
+        currentBucketStart = start;
+    }
+
+    private int bucketIndex(long bucketStart) {
+        return (int) ((bucketStart / bucketMillis) % buckets.length);
+    }
+
+    private List<TrendingJob> computeTrending() {
+        Set<Long> candidates = new HashSet<>();
+        for (Bucket b : buckets) candidates.addAll(b.heavyHitters.keySet());
+        List<TrendingJob> out = new ArrayList<>();
+        for (Long jobId : candidates) {
+            Optional<Job> job = jobSearchIndex.getJob(jobId);
+            if (job.isEmpty() || "CLOSED".equals(job.get().getStatus())) continue;
+            long score = 0;
+            for (Bucket b : buckets) score += b.sketch.estimate(jobId);
+            out.add(new TrendingJob(job.get(), score));
+        }
+        out.sort((a, b) -> Long.compare(b.score(), a.score()));
+        return out.size() > trendingSize ? new ArrayList<>(out.subList(0, trendingSize)) : out;
+    }
+
+    public record TrendingJob(Job job, long score) {}
+
+    /**
+     * One time slice of the window: a count-min sketch plus the top jobs by their sketch estimate
+     */
+    private static final class Bucket {
+        final CountMinSketch sketch;
+        final Map<Long, Long> heavyHitters = new HashMap<>();
+        final int capacity;
+
+        Bucket(int width, int depth, int capacity) {
+            this.sketch = new CountMinSketch(width, depth);
+            this.capacity = capacity;
+        }
+
+        void add(long jobId, long count) {
+            if (count <= 0) return;
+            long estimate = sketch.add(jobId, count);
+            if (heavyHitters.containsKey(jobId) || heavyHitters.size() < capacity) {
+                heavyHitters.put(jobId, estimate);
+                return;
+            }
+            Map.Entry<Long, Long> min = null;
+            for (Map.Entry<Long, Long> e : heavyHitters.entrySet()) {
+                if (min == null || e.getValue() < min.getValue()) min = e;
+            }
+            if (min != null && estimate > min.getValue()) {
+                heavyHitters.remove(min.getKey());
+                heavyHitters.put(jobId, estimate);
+            }
+        }
+
+        void clear() {
+            sketch.clear();
+            heavyHitters.clear();
+        }
+    }
+
+    private static final class CountMinSketch {
+        final long[][] counts;
+        final int width;
+
+        CountMinSketch(int width, int depth) {
+            this.width = width;
+            this.counts = new long[depth][width];
+        }
+
+        /** Adds {@code count} and returns the new estimate */
+        long add(long key, long count) {
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < counts.length; row++) {
+                int col = index(key, row);
+                counts[row][col] += count;
+                estimate = Math.min(estimate, counts[row][col]);
+            }
+            return estimate;
+        }
+
+        long estimate(long key) {
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < counts.length; row++) estimate = Math.min(estimate, counts[row][index(key, row)]);
+            return estimate;
+        }
+
+        void clear() {
+            for (long[] row : counts) Arrays.fill(row, 0L);
+        }
+
+        private int index(long key, int row) {
+            long h = key * 0x9E3779B97F4A7C15L + row * 0xC2B2AE3D27D4EB4FL;
+            h ^= h >>> 31;
+            h *= 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 29;
+            return (int) Math.floorMod(h, (long) width);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.model.JobAlert;
+import com.example.smartjobsearch.model.SavedSearch;
+import com.example.smartjobsearch.repo.JobAlertRepository;
+import com.example.smartjobsearch.repo.SavedSearchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Saved searches and the job alert inbox. Saved searches are compiled into a reverse index: each
+ * query is registered under a single anchor key (its longest keyword, or its location / job type
+ * filter when it has no keywords). A saved job looks up only the keys it contains and fully checks
+ * the queries found there, so matching cost follows the job's own terms rather than the number of
+ * saved searches.
+ */
+@Service
+public class JobAlertService {
+
+    private static final Pattern NUMBER = Pattern.compile("\\d[\\d,]*");
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private JobAlertRepository jobAlertRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${alerts.max-saved-searches-per-user:20}")
+    private int maxSavedSearchesPerUser;
+
+    private final Map<String, Set<Long>> queriesByAnchor = new HashMap<>();
+    private final Map<Long, CompiledQuery> queries = new HashMap<>();
+    private volatile boolean loaded = false;
+
+    public List<SavedSearch> getSavedSearches(Long userId) {
+        return savedSearchRepository.findByUserIdOrderByIdDesc(userId);
+    }
+
+    /**
+     * Validate and store a saved search. Throws IllegalArgumentException for empty or excess queries.
+     */
+    public SavedSearch createSavedSearch(SavedSearch search) {
+        if (search.getUserId() == null) throw new IllegalArgumentException("userId is required");
+        search.setId(null);
+        search.setKeywords(trimToNull(search.getKeywords()));
+        search.setLocation(trimToNull(search.getLocation()));
+        search.setJobType(trimToNull(search.getJobType()));
+        if (compile(search) == null) {
+            throw new IllegalArgumentException("A saved search needs keywords, a location or a job type");
+        }
+        if (savedSearchRepository.countByUserId(search.getUserId()) >= maxSavedSearchesPerUser) {
+            throw new IllegalArgumentException("At most " + maxSavedSearchesPerUser + " saved searches per user");
+        }
+        search.setCreatedAt(LocalDateTime.now());
+        SavedSearch saved = savedSearchRepository.save(search);
+        synchronized (this) {
+            if (loaded) register(saved);
+        }
+        return saved;
+    }
+
+    @Transactional
+    public boolean deleteSavedSearch(Long id, Long userId) {
+        Optional<SavedSearch> existing = savedSearchRepository.findById(id);
+        if (existing.isEmpty() || !existing.get().getUserId().equals(userId)) return false;
+        jobAlertRepository.deleteBySavedSearchId(id);
+        savedSearchRepository.deleteById(id);
+        synchronized (this) {
+            unregister(id);
+        }
+        return true;
+    }
+
+    /**
+     * Match a saved job against every saved search and write alerts for new matches
+     */
+    public void percolate(Job job) {
+        percolateAll(List.of(job));
+    }
+
+    /**
+     * Percolate a job once the current transaction commits, in a transaction of its own, so a failed
+     * alert insert never rolls back the job save itself. Failures are logged.
+     */
+    public void percolateAfterCommit(Job job) {
+        Runnable task = () -> {
+            try {
+                TransactionTemplate alertTransaction = new TransactionTemplate(transactionManager);
+                alertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                alertTransaction.executeWithoutResult(status -> percolate(job));
+            } catch (RuntimeException e) {
+                System.out.println("Warning: job alerts failed for job " + job.getId() + ": " + e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    public void percolateAll(List<Job> jobs) {
+        List<JobAlert> alerts = new ArrayList<>();
+        for (Job job : jobs) {
+            // Closed postings and near-duplicates of an existing posting do not alert again
+            if (job.getId() == null || "CLOSED".equals(job.getStatus()) || job.getDuplicateOf() != null) continue;
+            List<CompiledQuery> matches = match(job);
+            if (matches.isEmpty()) continue;
+            Set<Long> alreadyAlerted = new HashSet<>(jobAlertRepository.findSavedSearchIdsByJobId(job.getId()));
+            for (CompiledQuery q : matches) {
+                if (alreadyAlerted.contains(q.id) || q.userId.equals(job.getPostedBy())) continue;
+                alerts.add(new JobAlert(q.userId, q.id, job.getId()));
+            }
+        }
+        if (!alerts.isEmpty()) {
+            jobAlertRepository.saveAll(alerts);
+            System.out.println("Job alerts: " + alerts.size() + " new alerts for " + jobs.size() + " saved jobs");
+        }
+    }
+
+    public List<JobAlert> getAlerts(Long userId, boolean unreadOnly) {
+        return unreadOnly
+            ? jobAlertRepository.findTop100ByUserIdAndReadAtIsNullOrderByIdDesc(userId)
+            : jobAlertRepository.findTop100ByUserIdOrderByIdDesc(userId);
+    }
+
+    public long countUnread(Long userId) {
+        return jobAlertRepository.countByUserIdAndReadAtIsNull(userId);
+    }
+
+    @Transactional
+    public int markAllRead(Long userId) {
+        return jobAlertRepository.markAllRead(userId, LocalDateTime.now());
+    }
+
+    private synchronized List<CompiledQuery> match(Job job) {
+        ensureLoaded();
+        if (queries.isEmpty()) return List.of();
+        Set<String> terms = new HashSet<>(JobText.tokenize(JobText.searchableText(job)));
+        Set<String> locations = JobSearchIndex.locationKeys(job.getLocation());
+        String type = JobSearchIndex.normalizeJobType(job.getJobType());
+        Integer salary = parseSalary(job.getSalary());
+
+        Set<String> keys = new HashSet<>(terms);
+        keys.addAll(locations);
+        if (type != null) keys.add("type:" + type);
+
+        List<CompiledQuery> matches = new ArrayList<>();
+        for (String key : keys) {
+            Set<Long> ids = queriesByAnchor.get(key);
+            if (ids == null) continue;
+            for (Long id : ids) {
+                CompiledQuery q = queries.get(id);
+                if (q != null && q.matches(terms, locations, type, salary)) matches.add(q);
+            }
+        }
+        return matches;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        List<SavedSearch> all = savedSearchRepository.findAll();
+        for (SavedSearch s : all) register(s);
+        loaded = true;
+        System.out.println("JobAlertService - compiled " + queries.size() + " saved searches");
+    }
+
+    private void register(SavedSearch search) {
+        CompiledQuery q = compile(search);
+        if (q == null) return;
+        queries.put(q.id, q);
+        queriesByAnchor.computeIfAbsent(q.anchor, k -> new HashSet<>()).add(q.id);
+    }
+
+    private void unregister(Long id) {
+        CompiledQuery q = queries.remove(id);
+        if (q == null) return;
+        Set<Long> ids = queriesByAnchor.get(q.anchor);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) queriesByAnchor.remove(q.anchor);
+        }
+    }
+
+    private static CompiledQuery compile(SavedSearch search) {
+        List<String> keywords = JobText.tokenize(search.getKeywords());
+        String location = search.getLocation() != null ? "loc:" + search.getLocation().trim().toLowerCase(Locale.ROOT) : null;
+        String type = JobSearchIndex.normalizeJobType(search.getJobType());
+        // Longer words are rarer, so they make the most selective anchors
+        String anchor = keywords.stream().max(Comparator.comparingInt(String::length)).orElse(null);
+        if (anchor == null) anchor = location;
+        if (anchor == null && type != null) anchor = "type:" + type;
+        if (anchor == null) return null;
+        return new CompiledQuery(search.getId(), search.getUserId(), anchor, new HashSet<>(keywords), location, type, search.getMinSalary());
+    }
+
+    static Integer parseSalary(String salary) {
+        if (salary == null) return null;
+        Matcher m = NUMBER.matcher(salary);
+        if (!m.find()) return null;
+        try {
+            return Integer.valueOf(m.group().replace(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String trimToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
+    private record CompiledQuery(Long id, Long userId, String anchor, Set<String> keywords,
+                                 String location, String jobType, Integer minSalary) {
+
+        boolean matches(Set<String> terms, Set<String> locations, String type, Integer salary) {
+            if (!terms.containsAll(keywords)) return false;
+            if (location != null && !locations.contains(location)) return false;
+            if (jobType != null && !jobType.equals(type)) return false;
+            return minSalary == null || (salary != null && salary >= minSalary);
+        }
+    }
+}
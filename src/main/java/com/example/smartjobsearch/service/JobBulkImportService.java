@@ -0,0 +1,431 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.model.JobChange;
+import com.example.smartjobsearch.model.MlOutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Streaming bulk import for POST /api/jobs/bulk. CSV (with a header row) or NDJSON is parsed one
+ * row at a time, each row is validated on its own, and valid rows are written in JDBC batches:
+ * one multi-row insert each for the jobs, their change-feed entries and their ML outbox events per
+ * batch, then the whole batch is handed to the search index at once.
+ *
+ * Hibernate cannot batch inserts for IDENTITY ids, so this path bypasses the entity manager and
+ * reads the generated ids back from the JDBC batch.
+ */
+@Service
+public class JobBulkImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_COLUMN_LENGTH = 255;
+    private static final String[] FIELDS = {
+        "title", "description", "company", "location", "salary", "jobType", "experience", "skills", "status", "postedBy"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobSearchIndex jobSearchIndex;
+
+    @Autowired
+    private NearDuplicateIndex nearDuplicateIndex;
+
+    @Autowired
+    private JobAlertService jobAlertService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${jobs.bulk.batch-size:1000}")
+    private int batchSize;
+
+    public ImportReport importCsv(Reader in, Long defaultPostedBy) throws IOException {
+        Batcher batcher = new Batcher(defaultPostedBy);
+        CsvReader csv = new CsvReader(in);
+        List<String> header = csv.next();
+        if (header == null) return batcher.finish();
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(canonicalField(header.get(i)), i);
+        }
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) continue;
+            Map<String, Object> row = new HashMap<>();
+            for (String field : FIELDS) {
+                Integer col = columns.get(field);
+                if (col != null && col < record.size()) row.put(field, record.get(col));
+            }
+            batcher.accept(row);
+        }
+        return batcher.finish();
+    }
+
+    public ImportReport importNdjson(Reader in, Long defaultPostedBy) throws IOException {
+        Batcher batcher = new Batcher(defaultPostedBy);
+        BufferedReader reader = new BufferedReader(in, 1 << 16);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            Map<String, Object> raw;
+            try {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> parsed = objectMapper.readValue(line, Map.class);
+                raw = parsed;
+            } catch (JsonProcessingException e) {
+                batcher.reject("invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            Map<String, Object> row = new HashMap<>();
+            raw.forEach((k, v) -> row.putIfAbsent(canonicalField(k), v));
+            batcher.accept(row);
+        }
+        return batcher.finish();
+    }
+
+    /**
+     * Accumulates validated rows and flushes them in batches; tracks the per-row report
+     */
+    private class Batcher {
+        private final Long defaultPostedBy;
+        private final long start = System.nanoTime();
+        private final List<Job> pending = new ArrayList<>();
+        private final List<Integer> pendingRows = new ArrayList<>();
+        private final List<long[]> pendingSignatures = new ArrayList<>();
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private int rowNumber = 0;
+        private int imported = 0;
+        private int rejected = 0;
+        private int batches = 0;
+
+        Batcher(Long defaultPostedBy) {
+            this.defaultPostedBy = defaultPostedBy;
+        }
+
+        void accept(Map<String, Object> row) {
+            rowNumber++;
+            String error = validate(row);
+            if (error != null) {
+                recordError(error);
+                return;
+            }
+            Job job = toJob(row, defaultPostedBy);
+            pending.add(job);
+            pendingRows.add(rowNumber);
+            pendingSignatures.add(nearDuplicateIndex.signature(job));
+            if (pending.size() >= batchSize) flush();
+        }
+
+        void reject(String error) {
+            rowNumber++;
+            recordError(error);
+        }
+
+        private void recordError(String error) {
+            recordError(rowNumber, error);
+        }
+
+        private void recordError(int row, String error) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(Map.of("row", row, "error", error));
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) return;
+            List<Job> batch = new ArrayList<>(pending);
+            List<Integer> rows = new ArrayList<>(pendingRows);
+            List<long[]> signatures = new ArrayList<>(pendingSignatures);
+            pending.clear();
+            pendingRows.clear();
+            pendingSignatures.clear();
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertBatch(batch, signatures));
+            } catch (RuntimeException e) {
+                // The batch rolled back as a unit; report each of its rows and keep streaming
+                System.out.println("Warning: bulk job import batch failed: " + e.getMessage());
+                for (Job job : batch) nearDuplicateIndex.remove(job.getId());
+                for (Integer row : rows) recordError(row, "batch insert failed: " + e.getMessage());
+                return;
+            }
+            jobSearchIndex.indexAll(batch);
+            try {
+                jobAlertService.percolateAll(batch);
+            } catch (RuntimeException e) {
+                System.out.println("Warning: job alerts failed for bulk batch: " + e.getMessage());
+            }
+            imported += batch.size();
+            batches++;
+        }
+
+        ImportReport finish() {
+            flush();
+            double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+            ImportReport report = new ImportReport(imported, rejected, batches, Math.round(seconds * 1000), imported / seconds, errors);
+            System.out.println("Bulk job import: " + imported + " imported, " + rejected + " rejected in "
+                + report.getElapsedMs() + "ms (" + String.format("%.0f", report.getJobsPerSecond()) + " jobs/sec)");
+            return report;
+        }
+    }
+
+    private void insertBatch(List<Job> batch, List<long[]> signatures) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp ts = Timestamp.valueOf(now);
+
+        GeneratedKeyHolder jobKeys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(
+                "insert into job (title, description, company, location, salary, job_type, experience, skills, status, posted_by, created_at, updated_at, version) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Job job = batch.get(i);
+                    ps.setString(1, job.getTitle());
+                    ps.setString(2, job.getDescription());
+                    ps.setString(3, job.getCompany());
+                    ps.setString(4, job.getLocation());
+                    ps.setString(5, job.getSalary());
+                    ps.setString(6, job.getJobType());
+                    ps.setString(7, job.getExperience());
+                    ps.setString(8, job.getSkills());
+                    ps.setString(9, job.getStatus());
+                    ps.setObject(10, job.getPostedBy());
+                    ps.setTimestamp(11, ts);
+                    ps.setTimestamp(12, ts);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            }, jobKeys);
+        List<Long> jobIds = generatedIds(jobKeys, batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Job job = batch.get(i);
+            job.setId(jobIds.get(i));
+            job.setCreatedAt(now);
+            job.setUpdatedAt(now);
+        }
+
+        GeneratedKeyHolder changeKeys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(
+                "insert into job_change (job_id, type, changed_at) values (?, ?, ?)", Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setLong(1, jobIds.get(i));
+                    ps.setString(2, JobChange.UPSERT);
+                    ps.setTimestamp(3, ts);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            }, changeKeys);
+        List<Long> changeSeqs = generatedIds(changeKeys, batch.size());
+        // Near-duplicates are resolved in row order, so repeats within the same upload are caught too
+        List<Object[]> seqUpdates = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Job job = batch.get(i);
+            Long duplicateOf = nearDuplicateIndex.findDuplicate(signatures.get(i), job.getId());
+            nearDuplicateIndex.add(job.getId(), signatures.get(i), duplicateOf);
+            job.setDuplicateOf(duplicateOf);
+            job.setChangeSeq(changeSeqs.get(i));
+            seqUpdates.add(new Object[] { changeSeqs.get(i), duplicateOf, jobIds.get(i) });
+        }
+        jdbcTemplate.batchUpdate("update job set change_seq = ?, duplicate_of = ? where id = ?", seqUpdates);
+
+        List<Object[]> outbox = new ArrayList<>(batch.size());
+        for (Long id : jobIds) outbox.add(new Object[] { id, MlOutboxEvent.UPSERT, "PENDING", 0, ts, ts });
+        jdbcTemplate.batchUpdate(
+            "insert into ml_outbox_event (job_id, type, status, attempts, created_at, next_attempt_at) values (?, ?, ?, ?, ?, ?)", outbox);
+    }
+
+    private static List<Long> generatedIds(GeneratedKeyHolder keys, int expected) {
+        List<Long> ids = new ArrayList<>(expected);
+        for (Map<String, Object> row : keys.getKeyList()) {
+            // Drivers name the key column differently (GENERATED_KEY, ID, id); there is only one
+            ids.add(((Number) row.values().iterator().next()).longValue());
+        }
+        if (ids.size() != expected) {
+            throw new IllegalStateException("expected " + expected + " generated ids, got " + ids.size());
+        }
+        return ids;
+    }
+
+    private static String validate(Map<String, Object> row) {
+        Object title = row.get("title");
+        if (title == null || title.toString().isBlank()) return "title is required";
+        for (String field : FIELDS) {
+            Object value = row.get(field);
+            if (value != null && value.toString().length() > MAX_COLUMN_LENGTH) {
+                return field + " exceeds " + MAX_COLUMN_LENGTH + " characters";
+            }
+        }
+        Object status = row.get("status");
+        if (status != null && !status.toString().isBlank()
+                && !"OPEN".equalsIgnoreCase(status.toString().trim()) && !"CLOSED".equalsIgnoreCase(status.toString().trim())) {
+            return "status must be OPEN or CLOSED";
+        }
+        Object postedBy = row.get("postedBy");
+        if (postedBy != null && !postedBy.toString().isBlank()) {
+            try {
+                Long.parseLong(postedBy.toString().trim());
+            } catch (NumberFormatException e) {
+                return "postedBy must be a number";
+            }
+        }
+        return null;
+    }
+
+    private static Job toJob(Map<String, Object> row, Long defaultPostedBy) {
+        Job job = new Job();
+        job.setTitle(text(row, "title"));
+        job.setDescription(text(row, "description"));
+        job.setCompany(text(row, "company"));
+        job.setLocation(text(row, "location"));
+        job.setSalary(text(row, "salary"));
+        job.setJobType(text(row, "jobType"));
+        job.setExperience(text(row, "experience"));
+        job.setSkills(text(row, "skills"));
+        String status = text(row, "status");
+        job.setStatus(status != null ? status.toUpperCase(Locale.ROOT) : "OPEN");
+        String postedBy = text(row, "postedBy");
+        job.setPostedBy(postedBy != null ? Long.valueOf(postedBy) : defaultPostedBy);
+        return job;
+    }
+
+    private static String text(Map<String, Object> row, String field) {
+        Object value = row.get(field);
+        if (value == null) return null;
+        String s = value.toString().trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    // Accept the entity's camelCase names as well as snake_case / spaced headers ("Job Type")
+    private static String canonicalField(String name) {
+        String key = name.trim().replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+        for (String field : FIELDS) {
+            if (field.toLowerCase(Locale.ROOT).equals(key)) return field;
+        }
+        return key;
+    }
+
+    /**
+     * Minimal streaming RFC 4180 reader: quoted fields, doubled quotes and line breaks inside quotes
+     */
+    private static final class CsvReader {
+        private final Reader in;
+        private final char[] buf = new char[1 << 16];
+        private int pos = 0;
+        private int len = 0;
+
+        CsvReader(Reader in) {
+            this.in = in;
+        }
+
+        private int read() throws IOException {
+            if (pos == len) {
+                len = in.read(buf, 0, buf.length);
+                pos = 0;
+                if (len <= 0) {
+                    len = 0;
+                    return -1;
+                }
+            }
+            return buf[pos++];
+        }
+
+        private int peek() throws IOException {
+            int c = read();
+            if (c != -1) pos--;
+            return c;
+        }
+
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) return null;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) break;
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == -1 || c == '\n') {
+                    break;
+                } else if (c == '\r') {
+                    if (peek() == '\n') read();
+                    break;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    public static class ImportReport {
+        private final int imported;
+        private final int rejected;
+        private final int batches;
+        private final long elapsedMs;
+        private final double jobsPerSecond;
+        private final List<Map<String, Object>> errors;
+
+        public ImportReport(int imported, int rejected, int batches, long elapsedMs, double jobsPerSecond, List<Map<String, Object>> errors) {
+            this.imported = imported;
+            this.rejected = rejected;
+            this.batches = batches;
+            this.elapsedMs = elapsedMs;
+            this.jobsPerSecond = jobsPerSecond;
+            this.errors = errors;
+        }
+
+        public int getImported() { return imported; }
+        public int getRejected() { return rejected; }
+        public int getBatches() { return batches; }
+        public long getElapsedMs() { return elapsedMs; }
+        public double getJobsPerSecond() { return jobsPerSecond; }
+        public List<Map<String, Object>> getErrors() { return errors; }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.JobChange;
+import com.example.smartjobsearch.repo.JobChangeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Numbers change-feed entries in commit order. JobChange rows are written without a sequence
+ * number inside the job's own transaction, so they only become visible here once that transaction
+ * has committed; numbering them one pass at a time after the current maximum means a change can
+ * never land behind a sequence number a consumer has already read past.
+ */
+@Service
+public class JobChangeSequencer {
+
+    @Autowired
+    private JobChangeRepository jobChangeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${jobs.changes.sequence-batch:1000}")
+    private int batchSize;
+
+    /**
+     * Assign sequence numbers to every committed change that has none yet
+     */
+    @Scheduled(fixedDelayString = "${jobs.changes.sequence-ms:500}")
+    public synchronized int sequencePending() {
+        int total = 0;
+        while (true) {
+            Integer numbered = transactionTemplate.execute(status -> {
+                List<JobChange> pending = jobChangeRepository.findBySeqIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+                long next = jobChangeRepository.maxSeq();
+                for (JobChange change : pending) change.setSeq(++next);
+                jobChangeRepository.saveAll(pending);
+                return pending.size();
+            });
+            total += numbered;
+            if (numbered < batchSize) return total;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+
+import java.util.List;
+
+/**
+ * Callback for components that derive data from the job search index and must stay in sync with it.
+ */
+public interface JobIndexListener {
+
+    /**
+     * A saved job has been (re)indexed and its embedding, if any, is available
+     */
+    void jobIndexed(Job job);
+
+    /**
+     * A batch of saved jobs (bulk import) has been indexed; by default each is handled as jobIndexed
+     */
+    default void jobsIndexed(List<Job> jobs) {
+        for (Job job : jobs) jobIndexed(job);
+    }
+
+    /**
+     * A job has been removed from the index
+     */
+    default void jobRemoved(Long jobId) {
+    }
+}
@@ -5,8 +5,10 @@ package com.example.smartjobsearch.service;
 import com.example.smartjobsearch.model.Job;
 import com.example.smartjobsearch.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -14,6 +16,24 @@ public class JobRecommendationService {
     
     @Autowired
     private JobService jobService;
+
+    @Autowired
+    private JobSearchIndex jobSearchIndex;
+
+    @Autowired
+    private MlpReranker mlpReranker;
+
+    @Autowired
+    private CoApplicationService coApplicationService;
+
+    @Value("${recommendation.cf.weight:0.2}")
+    private double coApplicationWeight;
+
+    @Value("${recommendation.candidates.max:300}")
+    private int maxCandidates;
+
+    @Value("${recommendation.batch.ml-chunk-size:64}")
+    private int mlBatchSize;
     // History-aware personalization helpers were intentionally removed in favor of ML-based recommendations.
     // The remaining matching utilities below are kept as simple fallbacks.
 
@@ -21,14 +41,13 @@ public class JobRecommendationService {
      * Get personalized job recommendations for a user using AI-powered matching with history analysis
      */
     public JobRecommendationResult getPersonalizedRecommendations(User user, int limit) {
+        // Stage 1: candidate generation. Only these jobs reach the (expensive) scoring stage below.
+        List<Job> candidates = generateCandidates(user);
+        // With reranker weights loaded, candidates are ranked in-process and the ML service is not called
+        if (mlpReranker.isAvailable()) return buildLocalResult(user, candidates, limit);
         try {
             // Build a concise user profile text to send to the ML service
-            StringBuilder profileBuilder = new StringBuilder();
-            if (user.getSkills() != null) profileBuilder.append(user.getSkills()).append(" ");
-            if (user.getBio() != null) profileBuilder.append(user.getBio()).append(" ");
-            if (user.getExperience() != null) profileBuilder.append(user.getExperience()).append(" ");
-
-            String profileText = profileBuilder.toString().trim();
+            String profileText = buildProfileText(user);
 
             // Call the external Python ML service (FastAPI) for recommendations
             org.springframework.web.client.RestTemplate rest = new org.springframework.web.client.RestTemplate();
@@ -37,62 +56,261 @@ public class JobRecommendationService {
             Map<String, Object> payload = new HashMap<>();
             payload.put("user_profile_text", profileText);
             payload.put("top_k", limit);
+            payload.put("candidate_job_ids", candidates.stream().map(Job::getId).collect(Collectors.toList()));
 
             @SuppressWarnings("unchecked")
             Map<String, Object> resp = rest.postForObject(mlUrl, payload, Map.class);
 
-            List<JobRecommendationScore> recommendations = new ArrayList<>();
+            return buildMlResult(user, candidates, mlRecommendations(resp));
+
+        } catch (Exception e) {
+            // If ML service fails, fall back to personalized heuristic recommendations
+            System.out.println("ML recommender failed, falling back to local recommendations: " + e.getMessage());
+            e.printStackTrace();
+            return buildLocalResult(user, candidates, limit);
+        }
+    }
 
-            if (resp != null && resp.containsKey("recommendations")) {
+    /**
+     * Recommendations for many users in one pass: candidates are generated in parallel from the
+     * shared in-memory job indexes, the ML service is called once per chunk of users instead of
+     * once per user, and results are assembled in parallel. Users the ML service could not score
+     * get the local ranking, as do all users when the in-process reranker is loaded. Results are
+     * keyed by user id.
+     */
+    public Map<Long, JobRecommendationResult> getBatchRecommendations(List<User> users, int limit) {
+        Map<Long, List<Job>> candidatesByUser = new ConcurrentHashMap<>();
+        users.parallelStream().forEach(user -> candidatesByUser.put(user.getId(), generateCandidates(user)));
+
+        Map<Long, List<Map<String, Object>>> mlRecsByUser = new ConcurrentHashMap<>();
+        String batchUrl = mlBatchUrl();
+        org.springframework.web.client.RestTemplate rest = new org.springframework.web.client.RestTemplate();
+        for (int from = 0; !mlpReranker.isAvailable() && from < users.size(); from += mlBatchSize) {
+            List<User> chunk = users.subList(from, Math.min(users.size(), from + mlBatchSize));
+            List<Map<String, Object>> requests = new ArrayList<>(chunk.size());
+            for (User user : chunk) {
+                Map<String, Object> req = new HashMap<>();
+                req.put("user_profile_text", buildProfileText(user));
+                req.put("top_k", limit);
+                req.put("candidate_job_ids", candidatesByUser.get(user.getId()).stream().map(Job::getId).collect(Collectors.toList()));
+                requests.add(req);
+            }
+            try {
                 @SuppressWarnings("unchecked")
-                List<Map<String, Object>> recs = (List<Map<String, Object>>) resp.get("recommendations");
-                for (Map<String, Object> r : recs) {
-                    // Try to map returned job to internal Job entity by id if possible
-                    Job job = null;
-                    if (r.containsKey("job_id") && r.get("job_id") != null) {
-                        try {
-                            long jid = ((Number) r.get("job_id")).longValue();
-                            java.util.Optional<Job> jopt = jobService.getJobById(jid);
-                            if (jopt.isPresent()) job = jopt.get();
-                        } catch (Exception ex) {
-                            // ignore parsing issues and fall back to constructing a Job object below
-                        }
+                Map<String, Object> resp = rest.postForObject(batchUrl, Map.of("requests", requests), Map.class);
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> results = resp != null && resp.get("results") instanceof List
+                    ? (List<Map<String, Object>>) resp.get("results") : List.of();
+                for (int i = 0; i < chunk.size() && i < results.size(); i++) {
+                    Map<String, Object> result = results.get(i);
+                    if (result != null && result.get("error") == null) {
+                        mlRecsByUser.put(chunk.get(i).getId(), mlRecommendations(result));
                     }
+                }
+            } catch (Exception e) {
+                System.out.println("ML batch recommender failed for " + chunk.size() + " users, using local recommendations: " + e.getMessage());
+            }
+        }
 
-                    if (job == null) {
-                        job = new Job();
-                        if (r.get("title") != null) job.setTitle(String.valueOf(r.get("title")));
-                        if (r.get("company") != null) job.setCompany(String.valueOf(r.get("company")));
-                        if (r.get("location") != null) job.setLocation(String.valueOf(r.get("location")));
-                        if (r.get("description") != null) job.setDescription(String.valueOf(r.get("description")));
-                    }
+        Map<Long, JobRecommendationResult> results = new ConcurrentHashMap<>();
+        users.parallelStream().forEach(user -> {
+            List<Job> candidates = candidatesByUser.get(user.getId());
+            List<Map<String, Object>> mlRecs = mlRecsByUser.get(user.getId());
+            results.put(user.getId(), mlRecs != null
+                ? buildMlResult(user, candidates, mlRecs)
+                : buildLocalResult(user, candidates, limit));
+        });
+        return results;
+    }
 
-                    double score = 0.0;
-                    if (r.get("score") instanceof Number) score = ((Number) r.get("score")).doubleValue();
+    private String mlBatchUrl() {
+        String mlUrl = System.getenv().getOrDefault("ML_RECOMMENDER_URL", "http://localhost:8000/recommend");
+        if (mlUrl.endsWith("/recommend")) return mlUrl + "_batch";
+        return mlUrl.endsWith("/") ? mlUrl + "recommend_batch" : mlUrl + "/recommend_batch";
+    }
 
-                    @SuppressWarnings("unchecked")
-                    List<String> reasons = r.get("reasons") != null ? (List<String>) r.get("reasons") : getMatchReasons(user, job);
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> mlRecommendations(Map<String, Object> resp) {
+        if (resp != null && resp.get("recommendations") instanceof List) {
+            return (List<Map<String, Object>>) resp.get("recommendations");
+        }
+        return List.of();
+    }
 
-                    recommendations.add(new JobRecommendationScore(job, score, reasons));
+    /**
+     * Map ML service recommendations onto Job entities (candidates first) and blend in the co-application signal
+     */
+    private JobRecommendationResult buildMlResult(User user, List<Job> candidates, List<Map<String, Object>> recs) {
+        Map<Long, Job> candidatesById = new HashMap<>();
+        for (Job c : candidates) candidatesById.put(c.getId(), c);
+
+        List<JobRecommendationScore> recommendations = new ArrayList<>();
+        for (Map<String, Object> r : recs) {
+            // Try to map returned job to internal Job entity by id if possible
+            Job job = null;
+            if (r.containsKey("job_id") && r.get("job_id") != null) {
+                try {
+                    long jid = ((Number) r.get("job_id")).longValue();
+                    job = candidatesById.get(jid);
+                    if (job == null) job = jobService.getJobById(jid).orElse(null);
+                } catch (Exception ex) {
+                    // ignore parsing issues and fall back to constructing a Job object below
                 }
             }
 
-            double profileCompleteness = calculateProfileCompleteness(user);
-            List<String> insights = generateRecommendationInsights(user, recommendations);
+            if (job == null) {
+                job = new Job();
+                if (r.get("title") != null) job.setTitle(String.valueOf(r.get("title")));
+                if (r.get("company") != null) job.setCompany(String.valueOf(r.get("company")));
+                if (r.get("location") != null) job.setLocation(String.valueOf(r.get("location")));
+                if (r.get("description") != null) job.setDescription(String.valueOf(r.get("description")));
+            }
 
-            return new JobRecommendationResult(recommendations, profileCompleteness, insights, jobService.getAllJobs().size());
+            double score = 0.0;
+            if (r.get("score") instanceof Number) score = ((Number) r.get("score")).doubleValue();
 
-        } catch (Exception e) {
-            // If ML service fails, fall back to personalized heuristic recommendations
-            System.out.println("ML recommender failed, falling back to local recommendations: " + e.getMessage());
-            e.printStackTrace();
-            List<Job> allJobs = jobService.getAllJobs().stream().filter(j -> !"CLOSED".equals(j.getStatus())).collect(Collectors.toList());
-            List<JobRecommendationScore> fallback = getFallbackRecommendations(user, allJobs, limit);
-            double profileCompleteness = calculateProfileCompleteness(user);
-            return new JobRecommendationResult(fallback, profileCompleteness, generateRecommendationInsights(user, fallback.stream().collect(Collectors.toList())), allJobs.size());
+            @SuppressWarnings("unchecked")
+            List<String> reasons = r.get("reasons") != null ? (List<String>) r.get("reasons") : getMatchReasons(user, job);
+
+            recommendations.add(new JobRecommendationScore(job, score, reasons));
         }
+        recommendations = blendCoApplication(recommendations, coApplicationScores(user));
+
+        double profileCompleteness = calculateProfileCompleteness(user);
+        List<String> insights = generateRecommendationInsights(user, recommendations);
+
+        return new JobRecommendationResult(recommendations, profileCompleteness, insights, candidates.size());
+    }
+
+    private JobRecommendationResult buildLocalResult(User user, List<Job> candidates, int limit) {
+        List<JobRecommendationScore> fallback = getFallbackRecommendations(user, candidates, limit);
+        double profileCompleteness = calculateProfileCompleteness(user);
+        return new JobRecommendationResult(fallback, profileCompleteness, generateRecommendationInsights(user, fallback.stream().collect(Collectors.toList())), candidates.size());
+    }
+
+    /**
+     * Candidate generation: open jobs from the location / job type / skills filter indexes plus
+     * recent jobs, and the co-applied neighbours of the user's past applications. Bounded by
+     * {@code recommendation.candidates.max}, so scoring cost does not grow with the catalog.
+     */
+    private List<Job> generateCandidates(User user) {
+        List<Job> candidates = new ArrayList<>(jobSearchIndex.candidates(
+            user.getPreferredLocation(), user.getPreferredJobType(), user.getSkills(), maxCandidates));
+        Set<Long> seen = candidates.stream().map(Job::getId).collect(Collectors.toCollection(HashSet::new));
+        for (Long jobId : coApplicationScores(user).keySet()) {
+            if (seen.contains(jobId)) continue;
+            jobSearchIndex.getJob(jobId)
+                .filter(j -> !"CLOSED".equals(j.getStatus()))
+                .ifPresent(j -> {
+                    candidates.add(j);
+                    seen.add(jobId);
+                });
+        }
+        return candidates;
     }
     
+    /**
+     * Match scores of applicants for jobs (users[i] applying to jobs[i]), i.e. the recommendation
+     * scoring run from the job's side: the heuristic profile match, replaced by the in-process MLP's
+     * score when its weights are loaded.
+     */
+    public double[] scoreApplicants(List<User> users, List<Job> jobs) {
+        double[] scores = new double[jobs.size()];
+        for (int i = 0; i < scores.length; i++) scores[i] = calculateRecommendationScore(users.get(i), jobs.get(i));
+        float[] reranked = rerankScores(users, jobs);
+        if (reranked != null) {
+            for (int i = 0; i < scores.length; i++) scores[i] = reranked[i];
+        }
+        return scores;
+    }
+
+    /**
+     * Skills, bio and experience joined into the profile text used for embeddings
+     */
+    private String buildProfileText(User user) {
+        StringBuilder profileBuilder = new StringBuilder();
+        if (user.getSkills() != null) profileBuilder.append(user.getSkills()).append(" ");
+        if (user.getBio() != null) profileBuilder.append(user.getBio()).append(" ");
+        if (user.getExperience() != null) profileBuilder.append(user.getExperience()).append(" ");
+        return profileBuilder.toString().trim();
+    }
+
+    /**
+     * Rerank locally scored candidates with the in-process MLP reranker, using the same
+     * [embed_cos, skill_overlap] features it was trained on. Candidates are returned unchanged
+     * when no reranker weights are loaded or the features cannot be computed.
+     */
+    private List<JobRecommendationScore> rerankLocally(User user, List<JobRecommendationScore> candidates) {
+        int n = candidates.size();
+        float[] scores = n > 0
+            ? rerankScores(Collections.nCopies(n, user), candidates.stream().map(JobRecommendationScore::getJob).toList())
+            : null;
+        if (scores == null) return candidates;
+
+        List<JobRecommendationScore> reranked = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            JobRecommendationScore c = candidates.get(i);
+            reranked.add(new JobRecommendationScore(c.getJob(), scores[i], c.getReasons()));
+        }
+        reranked.sort(Comparator.comparingDouble(JobRecommendationScore::getScore).reversed());
+        return reranked;
+    }
+
+    /**
+     * MLP scores of (users[i], jobs[i]) pairs, or null when no weights are loaded or the features
+     * cannot be computed
+     */
+    private float[] rerankScores(List<User> users, List<Job> jobs) {
+        if (!mlpReranker.isAvailable() || mlpReranker.inputSize() != 2 || jobs.isEmpty()) return null;
+        float[] embedCos = embedCos(users, jobs);
+        if (embedCos == null) return null;
+        int n = jobs.size();
+        Map<User, Set<String>> userSkills = new IdentityHashMap<>();
+        float[] features = new float[n * 2];
+        float[] scores = new float[n];
+        for (int i = 0; i < n; i++) {
+            features[i * 2] = embedCos[i];
+            Set<String> skills = userSkills.computeIfAbsent(users.get(i), u -> skillSet(u.getSkills()));
+            Set<String> jobSkills = skillSet(jobs.get(i).getSkills());
+            if (!jobSkills.isEmpty()) {
+                int common = 0;
+                for (String skill : jobSkills) if (skills.contains(skill)) common++;
+                features[i * 2 + 1] = (float) common / jobSkills.size();
+            }
+        }
+        mlpReranker.scoreAll(features, n, scores);
+        return scores;
+    }
+
+    /**
+     * embed_cos of each (users[i], jobs[i]) pair from in-memory vectors: the profile's cached
+     * embedding against the job's embedding in the search index (0 for a job not embedded yet).
+     * Null if a profile cannot be embedded.
+     */
+    private float[] embedCos(List<User> users, List<Job> jobs) {
+        Map<User, float[]> profileVectors = new IdentityHashMap<>();
+        float[] out = new float[jobs.size()];
+        for (int i = 0; i < jobs.size(); i++) {
+            // Training pairs use the skills string as the profile
+            float[] u = profileVectors.computeIfAbsent(users.get(i), user -> jobSearchIndex.queryEmbedding(
+                user.getSkills() != null && !user.getSkills().isBlank() ? user.getSkills() : buildProfileText(user)));
+            if (u == null) return null;
+            float[] j = jobs.get(i).getId() != null ? jobSearchIndex.getEmbedding(jobs.get(i).getId()) : null;
+            out[i] = j != null ? JobText.dot(u, j) : 0f;
+        }
+        return out;
+    }
+
+    private Set<String> skillSet(String skills) {
+        Set<String> set = new HashSet<>();
+        if (skills == null) return set;
+        for (String s : skills.split(",")) {
+            String t = s.trim().toLowerCase();
+            if (!t.isEmpty()) set.add(t);
+        }
+        return set;
+    }
+
     /**
      * Original calculation method (kept as fallback)
      */
@@ -535,15 +753,54 @@ public class JobRecommendationService {
      * Provide fallback recommendations for users - always show jobs
      */
     private List<JobRecommendationScore> getFallbackRecommendations(User user, List<Job> availableJobs, int limit) {
-        // Compute a heuristic score per job using existing matching functions
-        return availableJobs.stream()
-            .sorted(Comparator.comparingDouble(job -> -calculateRecommendationScore(user, job)))
+        // Compute a heuristic score per job using existing matching functions; when the in-process
+        // reranker is loaded, a wider heuristic shortlist is reranked by it before truncating.
+        int shortlist = mlpReranker.isAvailable() ? Math.max(limit * 5, 50) : limit;
+        List<JobRecommendationScore> candidates = availableJobs.stream()
+            .map(job -> new JobRecommendationScore(job, calculateRecommendationScore(user, job), null))
+            .sorted(Comparator.comparingDouble(JobRecommendationScore::getScore).reversed())
+            .limit(shortlist)
+            .collect(Collectors.toList());
+        Map<Long, Double> coApplied = coApplicationScores(user);
+        return blendCoApplication(rerankLocally(user, candidates), coApplied).stream()
             .limit(limit)
-            .map(job -> new JobRecommendationScore(
-                job,
-                calculateRecommendationScore(user, job),
-                getMatchReasons(user, job)
-            ))
+            .map(rec -> {
+                List<String> reasons = getMatchReasons(user, rec.getJob());
+                if (rec.getJob().getId() != null && coApplied.containsKey(rec.getJob().getId())) {
+                    reasons.add(0, CO_APPLIED_REASON);
+                }
+                return new JobRecommendationScore(rec.getJob(), rec.getScore(), reasons);
+            })
             .collect(Collectors.toList());
     }
+
+    private static final String CO_APPLIED_REASON = "People who applied to the same jobs as you also applied here";
+
+    private Map<Long, Double> coApplicationScores(User user) {
+        if (user.getId() == null || coApplicationWeight <= 0) return Map.of();
+        return coApplicationService.scoresForUser(user.getId());
+    }
+
+    /**
+     * Boost scores by the item-to-item co-application signal and re-sort
+     */
+    private List<JobRecommendationScore> blendCoApplication(List<JobRecommendationScore> recs, Map<Long, Double> coApplied) {
+        if (coApplied.isEmpty()) return recs;
+        List<JobRecommendationScore> blended = new ArrayList<>(recs.size());
+        for (JobRecommendationScore rec : recs) {
+            Double cf = rec.getJob().getId() != null ? coApplied.get(rec.getJob().getId()) : null;
+            if (cf == null) {
+                blended.add(rec);
+                continue;
+            }
+            List<String> reasons = rec.getReasons();
+            if (reasons != null) {
+                reasons = new ArrayList<>(reasons);
+                reasons.add(0, CO_APPLIED_REASON);
+            }
+            blended.add(new JobRecommendationScore(rec.getJob(), Math.min(1.0, rec.getScore() + coApplicationWeight * cf), reasons));
+        }
+        blended.sort(Comparator.comparingDouble(JobRecommendationScore::getScore).reversed());
+        return blended;
+    }
 }
\ No newline at end of file
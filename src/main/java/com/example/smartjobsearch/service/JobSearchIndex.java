@@ -0,0 +1,466 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.repo.JobRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * In-memory lexical (BM25 inverted index) and vector (job embeddings) indexes over the job catalog.
+ * Hybrid search queries both and fuses the two rankings with reciprocal-rank fusion; each stage runs
+ * under its own latency budget and simply contributes nothing if it overruns.
+ */
+@Service
+public class JobSearchIndex {
+
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private CohereApiService cohereApiService;
+
+    @Value("${search.hybrid.lexical-budget-ms:30}")
+    private long lexicalBudgetMs;
+
+    @Value("${search.hybrid.vector-budget-ms:120}")
+    private long vectorBudgetMs;
+
+    @Value("${search.hybrid.candidates-per-stage:100}")
+    private int candidatesPerStage;
+
+    @Value("${search.hybrid.rrf-k:60}")
+    private int rrfK;
+
+    @Value("${search.index.warmup-embedding-batch:1000}")
+    private int warmupEmbeddingBatch;
+
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, Integer>> docTermCounts = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> docLengths = new ConcurrentHashMap<>();
+    private final Map<Long, Double> docNorms = new ConcurrentHashMap<>();
+    private final Map<Long, float[]> embeddings = new ConcurrentHashMap<>();
+    private volatile long totalDocLength = 0;
+    private volatile boolean loaded = false;
+    private final List<JobIndexListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Filter indexes for candidate generation: "loc:", "type:" and "skill:" keys -> job ids
+    private final Map<String, Set<Long>> facets = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> facetsByJob = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Long> openJobsNewestFirst = new ConcurrentSkipListSet<>(Comparator.reverseOrder());
+
+    // Small LRU of query and profile embeddings; repeated texts skip the embedding call entirely
+    private final Map<String, float[]> queryEmbeddingCache = Collections.synchronizedMap(
+        new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > 512;
+            }
+        });
+
+    private final ExecutorService stageExecutor = Executors.newFixedThreadPool(4, daemon("job-search-stage"));
+    private final ExecutorService embeddingExecutor = Executors.newSingleThreadExecutor(daemon("job-embedding"));
+
+    /**
+     * Hybrid search: lexical and vector candidates fused with reciprocal-rank fusion.
+     * Returns open jobs only, best first.
+     */
+    public List<Job> hybridSearch(String query, int limit) {
+        ensureLoaded();
+        Future<List<Long>> lexical = stageExecutor.submit(() -> lexicalSearch(query, candidatesPerStage));
+        Future<List<Long>> vector = stageExecutor.submit(() -> vectorSearch(query, candidatesPerStage));
+
+        List<Long> lexicalIds = await(lexical, lexicalBudgetMs, "lexical");
+        List<Long> vectorIds = await(vector, vectorBudgetMs, "vector");
+
+        Map<Long, Double> fused = new HashMap<>();
+        for (int i = 0; i < lexicalIds.size(); i++) fused.merge(lexicalIds.get(i), 1.0 / (rrfK + i + 1), Double::sum);
+        for (int i = 0; i < vectorIds.size(); i++) fused.merge(vectorIds.get(i), 1.0 / (rrfK + i + 1), Double::sum);
+
+        List<Job> results = new ArrayList<>();
+        fused.entrySet().stream()
+            .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+            .forEach(e -> {
+                Job job = jobs.get(e.getKey());
+                if (job != null && !"CLOSED".equals(job.getStatus()) && results.size() < limit) results.add(job);
+            });
+        return results;
+    }
+
+    /**
+     * BM25 ranking of job ids for the query terms
+     */
+    public List<Long> lexicalSearch(String query, int limit) {
+        ensureLoaded();
+        List<String> terms = JobText.tokenize(query);
+        int n = Math.max(1, docLengths.size());
+        double avgLength = Math.max(1.0, (double) totalDocLength / n);
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : new HashSet<>(terms)) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs == null || docs.isEmpty()) continue;
+            double idf = Math.log(1.0 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+            for (Map.Entry<Long, Integer> posting : docs.entrySet()) {
+                int length = docLengths.getOrDefault(posting.getKey(), 0);
+                double tf = posting.getValue();
+                double s = idf * (tf * (BM25_K1 + 1)) / (tf + BM25_K1 * (1 - BM25_B + BM25_B * length / avgLength));
+                scores.merge(posting.getKey(), s, Double::sum);
+            }
+        }
+        return topK(scores, limit);
+    }
+
+    /**
+     * Cosine ranking of job ids against the query embedding
+     */
+    public List<Long> vectorSearch(String query, int limit) {
+        ensureLoaded();
+        float[] q = queryEmbedding(query);
+        if (q == null) return List.of();
+        return nearest(q, limit, null);
+    }
+
+    /**
+     * Nearest job ids to the given unit vector, optionally excluding one id
+     */
+    public List<Long> nearest(float[] q, int limit, Long excludeId) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<Long, float[]> e : embeddings.entrySet()) {
+            if (e.getKey().equals(excludeId)) continue;
+            scores.put(e.getKey(), (double) JobText.dot(q, e.getValue()));
+        }
+        return topK(scores, limit);
+    }
+
+    public float[] getEmbedding(Long jobId) {
+        return embeddings.get(jobId);
+    }
+
+    /**
+     * Cosine similarity of two indexed jobs: embedding cosine when both embeddings are available,
+     * otherwise cosine of their term-frequency vectors.
+     */
+    public double similarity(Long a, Long b) {
+        float[] ea = embeddings.get(a);
+        float[] eb = embeddings.get(b);
+        if (ea != null && eb != null) return JobText.dot(ea, eb);
+        Map<String, Integer> ta = docTermCounts.get(a);
+        Map<String, Integer> tb = docTermCounts.get(b);
+        if (ta == null || tb == null) return 0.0;
+        if (ta.size() > tb.size()) {
+            Map<String, Integer> tmp = ta;
+            ta = tb;
+            tb = tmp;
+        }
+        double dot = 0.0;
+        for (Map.Entry<String, Integer> e : ta.entrySet()) {
+            Integer other = tb.get(e.getKey());
+            if (other != null) dot += e.getValue() * other;
+        }
+        double norm = docNorms.getOrDefault(a, 0.0) * docNorms.getOrDefault(b, 0.0);
+        return norm > 0 ? dot / norm : 0.0;
+    }
+
+    /**
+     * Candidate generation for recommendations: open jobs matching the preferred location, job type
+     * or skills (most matching facets first), topped up with the newest open jobs. Cost depends on
+     * the size of the matching posting lists and {@code max}, not on the catalog size.
+     */
+    public List<Job> candidates(String location, String jobType, String skills, int max) {
+        ensureLoaded();
+        Map<Long, Double> hits = new HashMap<>();
+        for (String key : locationKeys(location)) countFacet(key, 2.0, hits);
+        String type = normalizeJobType(jobType);
+        if (type != null) countFacet("type:" + type, 1.5, hits);
+        for (String key : skillKeys(skills)) countFacet(key, 1.0, hits);
+
+        List<Job> result = new ArrayList<>(max);
+        Set<Long> seen = new HashSet<>();
+        for (Long id : topK(hits, max)) {
+            Job job = jobs.get(id);
+            if (job != null && seen.add(id)) result.add(job);
+        }
+        for (Long id : openJobsNewestFirst) {
+            if (result.size() >= max) break;
+            Job job = jobs.get(id);
+            if (job != null && seen.add(id)) result.add(job);
+        }
+        return result;
+    }
+
+    private void countFacet(String key, double weight, Map<Long, Double> hits) {
+        Set<Long> ids = facets.get(key);
+        if (ids == null) return;
+        for (Long id : ids) {
+            Job job = jobs.get(id);
+            if (job != null && !"CLOSED".equals(job.getStatus())) hits.merge(id, weight, Double::sum);
+        }
+    }
+
+    public Set<Long> jobIds() {
+        ensureLoaded();
+        return Collections.unmodifiableSet(jobs.keySet());
+    }
+
+    public void addListener(JobIndexListener listener) {
+        listeners.add(listener);
+    }
+
+    public Optional<Job> getJob(Long jobId) {
+        ensureLoaded();
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Index (or re-index) a saved job. The lexical index updates immediately; the embedding is
+     * computed in the background so saving a job never waits on the embedding service.
+     */
+    public void index(Job job) {
+        index(job, loaded);
+    }
+
+    /**
+     * Index a batch of saved jobs (bulk import): one lock for the lexical updates and a single
+     * background task that embeds the batch in batched API calls and notifies listeners once.
+     */
+    public void indexAll(List<Job> batch) {
+        List<Job> indexed = batch.stream().filter(job -> job.getId() != null).toList();
+        if (indexed.isEmpty()) return;
+        boolean notify = loaded;
+        synchronized (this) {
+            for (Job job : indexed) indexTerms(job);
+        }
+        embeddingExecutor.submit(() -> embedAllAndNotify(indexed, notify));
+    }
+
+    /**
+     * Listeners are notified (on the embedding thread, once the embedding is available) only for
+     * incremental saves, not for the initial bulk load.
+     */
+    private void index(Job job, boolean notify) {
+        if (job == null || job.getId() == null) return;
+        synchronized (this) {
+            indexTerms(job);
+        }
+        embeddingExecutor.submit(() -> embedAndNotify(job, notify));
+    }
+
+    private void indexTerms(Job job) {
+        removeTerms(job.getId());
+        removeFacets(job.getId());
+        List<String> terms = JobText.tokenize(JobText.searchableText(job));
+        Map<String, Integer> tf = new HashMap<>();
+        for (String t : terms) tf.merge(t, 1, Integer::sum);
+        double norm = 0.0;
+        for (Map.Entry<String, Integer> e : tf.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), k -> new ConcurrentHashMap<>()).put(job.getId(), e.getValue());
+            norm += (double) e.getValue() * e.getValue();
+        }
+        docTermCounts.put(job.getId(), tf);
+        docLengths.put(job.getId(), terms.size());
+        docNorms.put(job.getId(), Math.sqrt(norm));
+        totalDocLength += terms.size();
+        jobs.put(job.getId(), job);
+        Set<String> keys = new HashSet<>(locationKeys(job.getLocation()));
+        String type = normalizeJobType(job.getJobType());
+        if (type != null) keys.add("type:" + type);
+        keys.addAll(skillKeys(job.getSkills()));
+        for (String key : keys) facets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(job.getId());
+        facetsByJob.put(job.getId(), keys);
+        if ("CLOSED".equals(job.getStatus())) openJobsNewestFirst.remove(job.getId());
+        else openJobsNewestFirst.add(job.getId());
+    }
+
+    private void embedAndNotify(Job job, boolean notify) {
+        String text = JobText.searchableText(job);
+        try {
+            float[] emb = JobText.normalize(cohereApiService.getEmbedding(text));
+            if (emb != null && jobs.containsKey(job.getId())) {
+                embeddings.put(job.getId(), emb);
+            }
+        } catch (Exception e) {
+            System.out.println("Warning: failed to embed job " + job.getId() + ": " + e.getMessage());
+        }
+        if (notify && jobs.containsKey(job.getId())) {
+            for (JobIndexListener listener : listeners) {
+                try {
+                    listener.jobIndexed(job);
+                } catch (Exception e) {
+                    System.out.println("Warning: job index listener failed for job " + job.getId() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void embedAllAndNotify(List<Job> batch, boolean notify) {
+        try {
+            List<List<Double>> vectors = cohereApiService.getEmbeddings(batch.stream().map(JobText::searchableText).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                float[] emb = JobText.normalize(vectors.get(i));
+                if (emb != null && jobs.containsKey(batch.get(i).getId())) embeddings.put(batch.get(i).getId(), emb);
+            }
+        } catch (Exception e) {
+            System.out.println("Warning: failed to embed " + batch.size() + " jobs: " + e.getMessage());
+        }
+        if (!notify) return;
+        List<Job> live = batch.stream().filter(job -> jobs.containsKey(job.getId())).toList();
+        if (live.isEmpty()) return;
+        for (JobIndexListener listener : listeners) {
+            try {
+                listener.jobsIndexed(live);
+            } catch (Exception e) {
+                System.out.println("Warning: job index listener failed for a batch of " + live.size() + " jobs: " + e.getMessage());
+            }
+        }
+    }
+
+    public void remove(Long jobId) {
+        if (jobId == null) return;
+        synchronized (this) {
+            removeTerms(jobId);
+            removeFacets(jobId);
+            jobs.remove(jobId);
+            openJobsNewestFirst.remove(jobId);
+            embeddings.remove(jobId);
+        }
+        for (JobIndexListener listener : listeners) listener.jobRemoved(jobId);
+    }
+
+    private void removeFacets(Long jobId) {
+        Set<String> old = facetsByJob.remove(jobId);
+        if (old == null) return;
+        for (String key : old) {
+            Set<Long> ids = facets.get(key);
+            if (ids != null) {
+                ids.remove(jobId);
+                if (ids.isEmpty()) facets.remove(key);
+            }
+        }
+    }
+
+    static Set<String> locationKeys(String location) {
+        Set<String> keys = new HashSet<>();
+        if (location == null || location.isBlank()) return keys;
+        String whole = location.trim().toLowerCase(Locale.ROOT);
+        keys.add("loc:" + whole);
+        for (String part : whole.split("[,/]")) {
+            if (!part.isBlank()) keys.add("loc:" + part.trim());
+        }
+        return keys;
+    }
+
+    static String normalizeJobType(String jobType) {
+        if (jobType == null || jobType.isBlank()) return null;
+        return jobType.trim().toLowerCase(Locale.ROOT).replaceAll("[\\s_]+", "-");
+    }
+
+    private static Set<String> skillKeys(String skills) {
+        Set<String> keys = new HashSet<>();
+        if (skills == null) return keys;
+        for (String skill : skills.split(",")) {
+            String t = skill.trim().toLowerCase(Locale.ROOT);
+            if (!t.isEmpty()) keys.add("skill:" + t);
+        }
+        return keys;
+    }
+
+    private void removeTerms(Long jobId) {
+        Map<String, Integer> old = docTermCounts.remove(jobId);
+        if (old == null) return;
+        totalDocLength -= docLengths.getOrDefault(jobId, 0);
+        docLengths.remove(jobId);
+        docNorms.remove(jobId);
+        for (String t : old.keySet()) {
+            Map<Long, Integer> docs = postings.get(t);
+            if (docs != null) {
+                docs.remove(jobId);
+                if (docs.isEmpty()) postings.remove(t);
+            }
+        }
+    }
+
+    /**
+     * Build the index at startup so no request pays for it. Terms are indexed synchronously; the
+     * catalog is embedded in the background through the batched embeddings call.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            List<Job> all = jobRepository.findAll();
+            for (Job job : all) indexTerms(job);
+            loaded = true;
+            for (int from = 0; from < all.size(); from += warmupEmbeddingBatch) {
+                List<Job> slice = all.subList(from, Math.min(all.size(), from + warmupEmbeddingBatch));
+                embeddingExecutor.submit(() -> embedAllAndNotify(slice, false));
+            }
+            System.out.println("JobSearchIndex - indexed " + all.size() + " jobs");
+        }
+    }
+
+    /**
+     * Unit embedding of a search query or profile text, or null if it cannot be embedded
+     */
+    public float[] queryEmbedding(String query) {
+        String key = query.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) return null;
+        float[] cached = queryEmbeddingCache.get(key);
+        if (cached != null) return cached;
+        float[] emb = JobText.normalize(cohereApiService.getEmbedding(key));
+        if (emb != null) queryEmbeddingCache.put(key, emb);
+        return emb;
+    }
+
+    private List<Long> await(Future<List<Long>> future, long budgetMs, String stage) {
+        try {
+            return future.get(budgetMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            System.out.println("Hybrid search: " + stage + " stage exceeded " + budgetMs + "ms budget, skipping");
+        } catch (Exception e) {
+            System.out.println("Hybrid search: " + stage + " stage failed: " + e.getMessage());
+        }
+        return List.of();
+    }
+
+    static List<Long> topK(Map<Long, Double> scores, int k) {
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            heap.offer(e);
+            if (heap.size() > k) heap.poll();
+        }
+        List<Long> out = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) out.add(heap.poll().getKey());
+        Collections.reverse(out);
+        return out;
+    }
+
+    static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stageExecutor.shutdownNow();
+        embeddingExecutor.shutdownNow();
+    }
+}
@@ -1,12 +1,24 @@
 package com.example.smartjobsearch.service;
 
 import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.model.JobChange;
+import com.example.smartjobsearch.model.MlOutboxEvent;
+import com.example.smartjobsearch.repo.JobChangeRepository;
 import com.example.smartjobsearch.repo.JobRepository;
+import com.example.smartjobsearch.repo.MlOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,6 +27,27 @@ public class JobService {
     @Autowired
     private JobRepository jobRepository;
 
+    @Autowired
+    private JobSearchIndex jobSearchIndex;
+
+    @Autowired
+    private MlOutboxRepository mlOutboxRepository;
+
+    @Autowired
+    private JobChangeRepository jobChangeRepository;
+
+    @Autowired
+    private NearDuplicateIndex nearDuplicateIndex;
+
+    @Autowired
+    private JobAlertService jobAlertService;
+
+    @Autowired
+    private AppliedJobViewService appliedJobViewService;
+
+    @Value("${jobs.changes.retention-days:7}")
+    private int changesRetentionDays;
+
     public List<Job> getAllJobs() {
         List<Job> jobs = jobRepository.findAll();
         System.out.println("DEBUG JobService - getAllJobs() returned " + jobs.size() + " jobs");
@@ -28,14 +61,129 @@ public class JobService {
         return jobRepository.findById(id);
     }
 
+    public List<Job> getJobsByIds(List<Long> ids) {
+        return jobRepository.findAllById(ids);
+    }
+
+    // The ML outbox row and the change-feed entry commit atomically with the job change;
+    // MlSyncDispatcher delivers the outbox, /api/jobs/changes serves the feed
+    @Transactional
     public Job saveJob(Job job) {
-        return jobRepository.save(job);
+        boolean isNew = job.getId() == null;
+        long[] signature = nearDuplicateIndex.signature(job);
+        job.setDuplicateOf(nearDuplicateIndex.findDuplicate(signature, job.getId()));
+        Job saved = jobRepository.save(job);
+        saved.setChangeSeq(jobChangeRepository.save(new JobChange(saved.getId(), JobChange.UPSERT)).getId());
+        mlOutboxRepository.save(new MlOutboxEvent(saved.getId(), MlOutboxEvent.UPSERT));
+        if (!isNew) appliedJobViewService.jobUpdated(saved);
+        afterCommit(() -> {
+            jobSearchIndex.index(saved);
+            nearDuplicateIndex.add(saved.getId(), signature, saved.getDuplicateOf());
+        });
+        jobAlertService.percolateAfterCommit(saved);
+        return saved;
     }
 
+    @Transactional
     public void deleteJob(Long id) {
+        // Nothing to tombstone or sync for an id that was never stored
+        if (!jobRepository.existsById(id)) return;
         jobRepository.deleteById(id);
+        appliedJobViewService.jobDeleted(id);
+        jobChangeRepository.save(new JobChange(id, JobChange.DELETE));
+        mlOutboxRepository.save(new MlOutboxEvent(id, MlOutboxEvent.DELETE));
+        afterCommit(() -> {
+            jobSearchIndex.remove(id);
+            nearDuplicateIndex.remove(id);
+        });
+    }
+
+    // In-memory indexes follow the database only once it has committed, so a rollback leaves them untouched
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * Keep only the first job of each near-duplicate group, preserving order
+     */
+    public List<Job> collapseDuplicates(List<Job> jobs) {
+        Set<Long> groups = new HashSet<>();
+        return jobs.stream()
+                .filter(j -> groups.add(j.getDuplicateOf() != null ? j.getDuplicateOf() : j.getId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Job changes after {@code since}, in sequence order. Each entry is either an upsert carrying the
+     * current job or a delete tombstone; an upsert superseded by a later change in the feed is skipped.
+     * Sequence numbers follow commit order (see JobChangeSequencer), so a change never appears behind
+     * the cursor.
+     */
+    public ChangeFeed getChangesSince(long since, int limit) {
+        List<JobChange> page = jobChangeRepository.findChangesSince(since, PageRequest.of(0, limit));
+
+        Map<Long, Job> jobs = new HashMap<>();
+        List<Long> upsertIds = page.stream().filter(c -> JobChange.UPSERT.equals(c.getType()))
+                .map(JobChange::getJobId).distinct().collect(Collectors.toList());
+        for (Job job : jobRepository.findAllById(upsertIds)) jobs.put(job.getId(), job);
+
+        Map<Long, Long> lastSeqByJob = new HashMap<>();
+        for (JobChange c : page) lastSeqByJob.put(c.getJobId(), c.getSeq());
+
+        List<Map<String, Object>> changes = new ArrayList<>();
+        for (JobChange c : page) {
+            if (!c.getSeq().equals(lastSeqByJob.get(c.getJobId()))) continue;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("seq", c.getSeq());
+            entry.put("jobId", c.getJobId());
+            entry.put("changedAt", c.getChangedAt());
+            Job job = jobs.get(c.getJobId());
+            if (JobChange.UPSERT.equals(c.getType()) && job != null) {
+                entry.put("type", JobChange.UPSERT);
+                entry.put("job", job);
+            } else {
+                entry.put("type", JobChange.DELETE); // deleted before the feed caught up
+            }
+            changes.add(entry);
+        }
+        long nextCursor = page.isEmpty() ? since : page.get(page.size() - 1).getSeq();
+        return new ChangeFeed(changes, nextCursor, page.size() >= limit);
     }
 
+    // Jobs written before the change feed existed get an initial entry so a consumer starting at
+    // since=0 sees the whole catalog
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillChanges() {
+        List<Job> untracked = jobRepository.findByChangeSeqIsNull();
+        if (untracked.isEmpty()) return;
+        for (Job job : untracked) {
+            job.setChangeSeq(jobChangeRepository.save(new JobChange(job.getId(), JobChange.UPSERT)).getId());
+        }
+        jobRepository.saveAll(untracked);
+        System.out.println("Job change log backfilled " + untracked.size() + " jobs");
+    }
+
+    // Keeps the change log proportional to the catalog: superseded upserts are dropped after the
+    // retention window, while the latest change per job (and every tombstone) stays readable
+    @Scheduled(cron = "${jobs.changes.compact-cron:0 30 4 * * *}")
+    @Transactional
+    public void compactChanges() {
+        int removed = jobChangeRepository.deleteSupersededBefore(LocalDateTime.now().minusDays(changesRetentionDays));
+        System.out.println("Job change log compaction removed " + removed + " superseded entries");
+    }
+
+    public record ChangeFeed(List<Map<String, Object>> changes, long nextCursor, boolean hasMore) {}
+
     public List<Job> searchJobs(String search) {
         // Simple in-memory search for demonstration; replace with custom query for production
         String lower = search.toLowerCase();
@@ -45,7 +193,25 @@ public class JobService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lexical + semantic search fused with reciprocal-rank fusion (open jobs only)
+     */
+    public List<Job> hybridSearchJobs(String search, int limit) {
+        return jobSearchIndex.hybridSearch(search, limit);
+    }
+
     public List<Job> getJobsByUser(Long userId) {
         return jobRepository.findByPostedBy(userId);
     }
+
+    /**
+     * An employer's jobs newest first, {@code limit} at a time after job id {@code afterId} (null for the first page)
+     */
+    public JobPage getJobsByUser(Long userId, String status, Long afterId, int limit) {
+        List<Job> rows = jobRepository.findPageByPostedBy(userId, status, afterId, PageRequest.of(0, limit + 1));
+        if (rows.size() <= limit) return new JobPage(rows, null);
+        return new JobPage(rows.subList(0, limit), rows.get(limit - 1).getId());
+    }
+
+    public record JobPage(List<Job> jobs, Long nextCursor) {}
 }
@@ -0,0 +1,73 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Shared text helpers for the in-memory job indexes so that every index tokenizes jobs the same way.
+ */
+public final class JobText {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+        "of", "on", "or", "our", "the", "to", "we", "with", "you", "your"
+    );
+
+    private JobText() {
+    }
+
+    /**
+     * Lowercase word tokens with stop words and single characters removed
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+        for (String raw : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}#+]+")) {
+            if (raw.length() < 2 || STOP_WORDS.contains(raw)) continue;
+            tokens.add(raw);
+        }
+        return tokens;
+    }
+
+    /**
+     * The searchable text of a job (title, company, skills, description)
+     */
+    public static String searchableText(Job job) {
+        StringBuilder sb = new StringBuilder();
+        if (job.getTitle() != null) sb.append(job.getTitle()).append(' ');
+        if (job.getCompany() != null) sb.append(job.getCompany()).append(' ');
+        if (job.getSkills() != null) sb.append(job.getSkills()).append(' ');
+        if (job.getJobType() != null) sb.append(job.getJobType()).append(' ');
+        if (job.getDescription() != null) sb.append(job.getDescription());
+        return sb.toString().trim();
+    }
+
+    /**
+     * Unit-length float copy of an embedding so cosine similarity becomes a plain dot product
+     */
+    public static float[] normalize(List<Double> vector) {
+        if (vector == null || vector.isEmpty()) return null;
+        float[] out = new float[vector.size()];
+        double norm = 0.0;
+        for (int i = 0; i < out.length; i++) {
+            double v = vector.get(i);
+            out[i] = (float) v;
+            norm += v * v;
+        }
+        if (norm == 0.0) return null;
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < out.length; i++) out[i] *= inv;
+        return out;
+    }
+
+    public static float dot(float[] a, float[] b) {
+        int n = Math.min(a.length, b.length);
+        float sum = 0f;
+        for (int i = 0; i < n; i++) sum += a[i] * b[i];
+        return sum;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.smartjobsearch.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * ResumeStore on the local disk. Uploads stream into a temp file while their SHA-256 is computed,
+ * then move to {@code <dir>/ab/cd/<sha256>} (two levels of sharding keep directories small) unless
+ * that body is already stored. Reference counts live in the resume_blob table and are written in
+ * their own transaction, so a release from an after-commit callback is not lost.
+ */
+@Service
+public class LocalResumeStore implements ResumeStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate ownTransaction;
+    private final Path root;
+    private final Object[] locks = new Object[64];
+
+    public LocalResumeStore(@Value("${resumes.storage.dir:uploads/resumes/store}") String dir,
+                            PlatformTransactionManager transactionManager) {
+        Path path = Paths.get(dir);
+        this.root = path.isAbsolute() ? path : Paths.get(System.getProperty("user.dir")).resolve(path);
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < locks.length; i++) locks[i] = new Object();
+    }
+
+    @Override
+    public String store(InputStream in) throws IOException {
+        Path tmpDir = root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                size = in.transferTo(out);
+            }
+            String key = HexFormat.of().formatHex(digest.digest());
+            synchronized (lockFor(key)) {
+                Path target = pathFor(key);
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+                ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "insert into resume_blob (storage_key, size_bytes, ref_count, created_at) values (?, ?, 1, ?) "
+                        + "on duplicate key update ref_count = ref_count + 1",
+                    key, size, Timestamp.valueOf(LocalDateTime.now())));
+            }
+            return key;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public void release(String key) throws IOException {
+        if (key == null || !KEY.matcher(key).matches()) return;
+        synchronized (lockFor(key)) {
+            Boolean unreferenced = ownTransaction.execute(status -> {
+                jdbcTemplate.update("update resume_blob set ref_count = ref_count - 1 where storage_key = ? and ref_count > 0", key);
+                return jdbcTemplate.update("delete from resume_blob where storage_key = ? and ref_count <= 0", key) > 0;
+            });
+            if (Boolean.TRUE.equals(unreferenced)) Files.deleteIfExists(pathFor(key));
+        }
+    }
+
+    @Override
+    public Optional<Resource> load(String key) {
+        if (key == null || !KEY.matcher(key).matches()) return Optional.empty();
+        Path path = pathFor(key);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    private Path pathFor(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private Object lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), locks.length)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
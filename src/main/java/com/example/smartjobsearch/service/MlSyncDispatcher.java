@@ -0,0 +1,185 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.model.MlOutboxEvent;
+import com.example.smartjobsearch.repo.JobRepository;
+import com.example.smartjobsearch.repo.MlOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single dispatcher that drains the ML outbox: due events are sent to the ML service's
+ * /upload_jobs in one merge request per batch, failed batches are retried with exponential
+ * backoff, and reranker retraining is coalesced into at most one request per window.
+ */
+@Service
+public class MlSyncDispatcher {
+
+    @Autowired
+    private MlOutboxRepository mlOutboxRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private MlpReranker mlpReranker;
+
+    @Value("${ml.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${ml.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${ml.outbox.backoff-base-ms:2000}")
+    private long backoffBaseMs;
+
+    @Value("${ml.outbox.backoff-max-ms:600000}")
+    private long backoffMaxMs;
+
+    @Value("${ml.retrain.window-ms:600000}")
+    private long retrainWindowMs;
+
+    private final RestTemplate rest = new RestTemplate();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private volatile boolean retrainPending = false;
+    private volatile long lastRetrainAt = 0L;
+    private volatile Object loadedWeightsVersion;
+
+    @Scheduled(fixedDelayString = "${ml.outbox.poll-ms:2000}")
+    public void drain() {
+        if (!draining.compareAndSet(false, true)) return;
+        try {
+            while (true) {
+                List<MlOutboxEvent> due = mlOutboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+                if (due.isEmpty()) break;
+                if (!dispatch(due)) break; // back off; remaining events wait for their next attempt
+                if (due.size() < batchSize) break;
+            }
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Request a reranker retrain; it is sent at most once per retrain window
+     */
+    public void requestRetrain() {
+        retrainPending = true;
+    }
+
+    @Scheduled(fixedDelayString = "${ml.retrain.poll-ms:30000}")
+    public void retrainIfDue() {
+        if (!retrainPending || System.currentTimeMillis() - lastRetrainAt < retrainWindowMs) return;
+        retrainPending = false;
+        lastRetrainAt = System.currentTimeMillis();
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> resp = rest.postForObject(mlBaseUrl() + "/retrain_reranker", Map.of(), Map.class);
+            System.out.println("ML retrain response: " + (resp != null ? resp.toString() : "null"));
+            Object weightsVersion = resp != null ? resp.get("reranker_bin_mtime") : null;
+            if (weightsVersion != null && !weightsVersion.equals(loadedWeightsVersion)) {
+                fetchRerankerWeights();
+                loadedWeightsVersion = weightsVersion;
+            }
+        } catch (Exception e) {
+            retrainPending = true; // try again next window
+            System.out.println("Warning: ML retrain request failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load the MLP weights the ML service last exported, so the in-process reranker scores with the
+     * model trained on the current corpus. Also run at startup; the service and the backend do not
+     * share a filesystem.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void fetchRerankerWeights() {
+        try {
+            byte[] weights = rest.getForObject(mlBaseUrl() + "/reranker_weights", byte[].class);
+            if (weights != null) mlpReranker.load(weights);
+        } catch (Exception e) {
+            System.out.println("Warning: could not fetch reranker weights from the ML service: " + e.getMessage());
+        }
+    }
+
+    private boolean dispatch(List<MlOutboxEvent> events) {
+        // Latest event per job wins; a job deleted after being saved is sent as a delete
+        Map<Long, String> latest = new LinkedHashMap<>();
+        for (MlOutboxEvent e : events) latest.put(e.getJobId(), e.getType());
+
+        List<Long> upsertIds = new ArrayList<>();
+        List<Long> deleteIds = new ArrayList<>();
+        latest.forEach((jobId, type) -> (MlOutboxEvent.DELETE.equals(type) ? deleteIds : upsertIds).add(jobId));
+
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        Set<Long> found = new HashSet<>();
+        for (Job job : jobRepository.findAllById(upsertIds)) {
+            jobs.add(toMlJob(job));
+            found.add(job.getId());
+        }
+        for (Long id : upsertIds) if (!found.contains(id)) deleteIds.add(id);
+
+        try {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("jobs", jobs);
+            payload.put("delete_job_ids", deleteIds);
+            payload.put("replace", false);
+            payload.put("train_reranker", false);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> resp = rest.postForObject(mlBaseUrl() + "/upload_jobs", payload, Map.class);
+            System.out.println("ML outbox: sent " + jobs.size() + " upserts, " + deleteIds.size() + " deletes"
+                + (resp != null ? " -> " + resp : ""));
+            mlOutboxRepository.deleteAllInBatch(events);
+            requestRetrain();
+            return true;
+        } catch (Exception ex) {
+            LocalDateTime now = LocalDateTime.now();
+            for (MlOutboxEvent e : events) {
+                e.setAttempts(e.getAttempts() + 1);
+                e.setLastError(ex.getMessage());
+                if (e.getAttempts() >= maxAttempts) {
+                    e.setStatus("FAILED");
+                } else {
+                    long delay = Math.min(backoffMaxMs, backoffBaseMs << Math.min(20, e.getAttempts() - 1));
+                    e.setNextAttemptAt(now.plusNanos(delay * 1_000_000L));
+                }
+            }
+            mlOutboxRepository.saveAll(events);
+            System.out.println("Warning: ML outbox batch of " + events.size() + " failed (attempt "
+                + events.get(0).getAttempts() + "): " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private Map<String, Object> toMlJob(Job job) {
+        Map<String, Object> jobMap = new HashMap<>();
+        jobMap.put("Job Title", job.getTitle() != null ? job.getTitle() : "");
+        jobMap.put("Company", job.getCompany() != null ? job.getCompany() : "");
+        jobMap.put("Location", job.getLocation() != null ? job.getLocation() : "");
+        jobMap.put("Experience Level", job.getExperience() != null ? job.getExperience() : "");
+        jobMap.put("Salary", job.getSalary() != null ? job.getSalary() : "");
+        jobMap.put("Industry", "");
+        jobMap.put("Required Skills", job.getSkills() != null ? job.getSkills() : "");
+        jobMap.put("job_id", job.getId());
+        return jobMap;
+    }
+
+    private String mlBaseUrl() {
+        String mlUrl = System.getenv().getOrDefault("ML_RECOMMENDER_URL", "http://localhost:8000");
+        // If env var points to a specific endpoint like /recommend, strip path
+        if (mlUrl.endsWith("/recommend")) {
+            mlUrl = mlUrl.substring(0, mlUrl.length() - "/recommend".length());
+        }
+        return mlUrl.endsWith("/") ? mlUrl.substring(0, mlUrl.length() - 1) : mlUrl;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.smartjobsearch.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * In-process forward pass of the reranker MLP trained by ml/retrain_reranker.py.
+ *
+ * Weights are read from reranker.bin (see export_reranker_bin in the Python script), and replaced
+ * when the ML service retrains (see MlSyncDispatcher). Features are
+ * [embed_cos, skill_overlap], hidden layers use ReLU and the output is a sigmoid probability.
+ * Activation buffers are allocated once per thread, so scoring does not allocate.
+ */
+@Service
+public class MlpReranker {
+
+    private static final int MAGIC = 0x314B5252; // "RRK1" read little-endian
+
+    @Value("${ml.reranker.path:ml/artifacts/reranker.bin}")
+    private String modelPath;
+
+    private volatile Model model;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * (Re)load weights from disk. Keeps the previous model if the file is missing or invalid.
+     */
+    public boolean reload() {
+        Path path = Paths.get(modelPath);
+        if (!Files.exists(path)) {
+            System.out.println("MlpReranker - no weights at " + path.toAbsolutePath() + "; in-process reranking disabled");
+            return false;
+        }
+        try {
+            model = Model.read(Files.readAllBytes(path));
+            System.out.println("MlpReranker - loaded " + model.layers + " layers from " + path.toAbsolutePath());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Warning: failed to load reranker weights: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Swap in weights fetched from the ML service and keep them as the local reranker.bin for restarts.
+     * Throws IllegalArgumentException if the bytes are not a valid reranker.bin.
+     */
+    public void load(byte[] bytes) {
+        Model loaded = Model.read(bytes);
+        model = loaded;
+        System.out.println("MlpReranker - loaded " + loaded.layers + " layers from the ML service");
+        Path path = Paths.get(modelPath);
+        try {
+            if (path.toAbsolutePath().getParent() != null) Files.createDirectories(path.toAbsolutePath().getParent());
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Warning: could not save reranker weights to " + path.toAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return model != null;
+    }
+
+    public int inputSize() {
+        Model m = model;
+        return m != null ? m.in[0] : 0;
+    }
+
+    /**
+     * Score a single candidate from its two features
+     */
+    public float score(float embedCos, float skillOverlap) {
+        Model m = model;
+        if (m == null) return Float.NaN;
+        float[] input = m.buffers.get()[0];
+        input[0] = embedCos;
+        if (input.length > 1) input[1] = skillOverlap;
+        return m.forward();
+    }
+
+    /**
+     * Score {@code count} candidates whose features are packed row-major in {@code features};
+     * results are written to {@code out}.
+     */
+    public void scoreAll(float[] features, int count, float[] out) {
+        Model m = model;
+        if (m == null) {
+            java.util.Arrays.fill(out, 0, count, Float.NaN);
+            return;
+        }
+        int dim = m.in[0];
+        float[] input = m.buffers.get()[0];
+        for (int r = 0; r < count; r++) {
+            System.arraycopy(features, r * dim, input, 0, dim);
+            out[r] = m.forward();
+        }
+    }
+
+    private static final class Model {
+        final int layers;
+        final int[] in;
+        final int[] out;
+        final float[][] weights;
+        final float[][] biases;
+        // buffers[0] is the input vector, buffers[i + 1] the activations of layer i
+        final ThreadLocal<float[][]> buffers;
+
+        private Model(int layers, int[] in, int[] out, float[][] weights, float[][] biases) {
+            this.layers = layers;
+            this.in = in;
+            this.out = out;
+            this.weights = weights;
+            this.biases = biases;
+            this.buffers = ThreadLocal.withInitial(() -> {
+                float[][] b = new float[layers + 1][];
+                b[0] = new float[in[0]];
+                for (int i = 0; i < layers; i++) b[i + 1] = new float[out[i]];
+                return b;
+            });
+        }
+
+        float forward() {
+            float[][] b = buffers.get();
+            for (int l = 0; l < layers; l++) {
+                float[] x = b[l];
+                float[] y = b[l + 1];
+                float[] w = weights[l];
+                float[] bias = biases[l];
+                int inDim = in[l];
+                boolean last = l == layers - 1;
+                for (int o = 0; o < out[l]; o++) {
+                    float sum = bias[o];
+                    int row = o * inDim;
+                    for (int i = 0; i < inDim; i++) sum += w[row + i] * x[i];
+                    y[o] = last ? (float) (1.0 / (1.0 + Math.exp(-sum))) : Math.max(0f, sum);
+                }
+            }
+            return b[layers][0];
+        }
+
+        static Model read(byte[] bytes) {
+            ByteBuffer buf = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt() != MAGIC) throw new IllegalArgumentException("not a reranker.bin file");
+            int layers = buf.getInt();
+            if (layers <= 0 || layers > 16) throw new IllegalArgumentException("bad layer count " + layers);
+            int[] in = new int[layers];
+            int[] out = new int[layers];
+            float[][] weights = new float[layers][];
+            float[][] biases = new float[layers][];
+            for (int l = 0; l < layers; l++) {
+                in[l] = buf.getInt();
+                out[l] = buf.getInt();
+                if (l > 0 && in[l] != out[l - 1]) {
+                    throw new IllegalArgumentException("layer " + l + " input " + in[l] + " != previous output " + out[l - 1]);
+                }
+                weights[l] = new float[in[l] * out[l]];
+                buf.asFloatBuffer().get(weights[l]);
+                buf.position(buf.position() + weights[l].length * Float.BYTES);
+                biases[l] = new float[out[l]];
+                buf.asFloatBuffer().get(biases[l]);
+                buf.position(buf.position() + biases[l].length * Float.BYTES);
+            }
+            if (out[layers - 1] != 1) throw new IllegalArgumentException("reranker must have a single output");
+            return new Model(layers, in, out, weights, biases);
+        }
+    }
+}
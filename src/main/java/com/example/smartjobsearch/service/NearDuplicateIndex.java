@@ -0,0 +1,174 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.repo.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * MinHash signatures over word shingles of each job's posting text, kept in an LSH band index.
+ * A job whose estimated Jaccard similarity to an indexed job reaches the threshold is a near-duplicate
+ * of it; lookups touch one bucket per band and a bounded number of candidates, so the cost per insert
+ * does not grow with the catalog.
+ */
+@Service
+public class NearDuplicateIndex {
+
+    private static final int SHINGLE_SIZE = 3;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Value("${jobs.dedupe.threshold:0.8}")
+    private double threshold;
+
+    @Value("${jobs.dedupe.max-candidates:50}")
+    private int maxCandidates;
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    private final Map<Long, long[]> signatures = new HashMap<>();
+    private final Map<Long, Long> canonicalOf = new HashMap<>();
+    private final List<Map<Long, Set<Long>>> buckets = new ArrayList<>();
+    private volatile boolean loaded = false;
+
+    public NearDuplicateIndex(@Value("${jobs.dedupe.bands:16}") int bands, @Value("${jobs.dedupe.rows:8}") int rows) {
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        long x = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < seeds.length; i++) seeds[i] = x = mix(x + i);
+        for (int b = 0; b < bands; b++) buckets.add(new HashMap<>());
+    }
+
+    /**
+     * MinHash signature of a job's title, company, location and description (null if it has no text)
+     */
+    public long[] signature(Job job) {
+        StringBuilder sb = new StringBuilder();
+        if (job.getTitle() != null) sb.append(job.getTitle()).append(' ');
+        if (job.getCompany() != null) sb.append(job.getCompany()).append(' ');
+        if (job.getLocation() != null) sb.append(job.getLocation()).append(' ');
+        if (job.getDescription() != null) sb.append(job.getDescription());
+        List<String> tokens = JobText.tokenize(sb.toString());
+        if (tokens.isEmpty()) return null;
+
+        long[] sig = new long[seeds.length];
+        Arrays.fill(sig, Long.MAX_VALUE);
+        int n = Math.max(1, tokens.size() - SHINGLE_SIZE + 1);
+        for (int start = 0; start < n; start++) {
+            long h = 0xcbf29ce484222325L; // FNV-1a over the shingle's words
+            for (int i = start; i < Math.min(tokens.size(), start + SHINGLE_SIZE); i++) {
+                for (byte c : tokens.get(i).getBytes(StandardCharsets.UTF_8)) {
+                    h = (h ^ (c & 0xff)) * 0x100000001b3L;
+                }
+                h = (h ^ ' ') * 0x100000001b3L;
+            }
+            for (int k = 0; k < seeds.length; k++) {
+                long v = mix(h ^ seeds[k]);
+                if (v < sig[k]) sig[k] = v;
+            }
+        }
+        return sig;
+    }
+
+    /**
+     * Canonical job that {@code sig} near-duplicates, or null. Ignores {@code selfId} (re-saves).
+     */
+    public synchronized Long findDuplicate(long[] sig, Long selfId) {
+        ensureLoaded();
+        if (sig == null) return null;
+        Set<Long> seen = new HashSet<>();
+        Long best = null;
+        double bestScore = 0.0;
+        for (int b = 0; b < bands && seen.size() < maxCandidates; b++) {
+            Set<Long> bucket = buckets.get(b).get(bandKey(sig, b));
+            if (bucket == null) continue;
+            for (Long candidate : bucket) {
+                if (candidate.equals(selfId) || !seen.add(candidate)) continue;
+                double score = estimateJaccard(sig, signatures.get(candidate));
+                // Prefer the oldest posting among equally close matches
+                if (score >= threshold && (best == null || score > bestScore || (score == bestScore && candidate < best))) {
+                    best = candidate;
+                    bestScore = score;
+                }
+                if (seen.size() >= maxCandidates) break;
+            }
+        }
+        // A match that is itself a duplicate points at its canonical job, so every copy shares one
+        if (best == null) return null;
+        Long canonical = canonicalOf.getOrDefault(best, best);
+        return canonical.equals(selfId) ? null : canonical;
+    }
+
+    /**
+     * Index a saved job's signature; {@code duplicateOf} is its canonical job if it was flagged
+     */
+    public synchronized void add(Long jobId, long[] sig, Long duplicateOf) {
+        if (jobId == null) return;
+        ensureLoaded();
+        addInternal(jobId, sig, duplicateOf);
+    }
+
+    private void addInternal(Long jobId, long[] sig, Long duplicateOf) {
+        removeInternal(jobId);
+        if (sig == null) return;
+        signatures.put(jobId, sig);
+        if (duplicateOf != null) canonicalOf.put(jobId, duplicateOf);
+        for (int b = 0; b < bands; b++) {
+            buckets.get(b).computeIfAbsent(bandKey(sig, b), k -> new HashSet<>()).add(jobId);
+        }
+    }
+
+    public synchronized void remove(Long jobId) {
+        if (jobId == null || !loaded) return;
+        removeInternal(jobId);
+    }
+
+    private void removeInternal(Long jobId) {
+        canonicalOf.remove(jobId);
+        long[] old = signatures.remove(jobId);
+        if (old == null) return;
+        for (int b = 0; b < bands; b++) {
+            long key = bandKey(old, b);
+            Set<Long> bucket = buckets.get(b).get(key);
+            if (bucket == null) continue;
+            bucket.remove(jobId);
+            if (bucket.isEmpty()) buckets.get(b).remove(key);
+        }
+    }
+
+    private double estimateJaccard(long[] a, long[] b) {
+        if (a == null || b == null) return 0.0;
+        int same = 0;
+        for (int i = 0; i < a.length; i++) if (a[i] == b[i]) same++;
+        return (double) same / a.length;
+    }
+
+    private long bandKey(long[] sig, int band) {
+        long h = band;
+        for (int r = band * rows; r < (band + 1) * rows; r++) h = h * 31 + sig[r];
+        return mix(h);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        List<Job> all = jobRepository.findAll();
+        for (Job job : all) addInternal(job.getId(), signature(job), job.getDuplicateOf());
+        loaded = true;
+        System.out.println("NearDuplicateIndex - indexed " + signatures.size() + " of " + all.size() + " jobs");
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
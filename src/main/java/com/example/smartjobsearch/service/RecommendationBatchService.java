@@ -0,0 +1,228 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.User;
+import com.example.smartjobsearch.model.UserRecommendation;
+import com.example.smartjobsearch.repo.UserRecommendationRepository;
+import com.example.smartjobsearch.repo.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background precompute of every active user's top-N recommendations into the compact
+ * UserRecommendation table, so emails and the home-page widget read rows instead of running the
+ * recommender per request. Users are walked in keyset pages and scored in parallel on a bounded
+ * fork-join pool.
+ */
+@Service
+public class RecommendationBatchService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRecommendationRepository userRecommendationRepository;
+
+    @Autowired
+    private JobRecommendationService jobRecommendationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${recommendation.batch.top-n:10}")
+    private int topN;
+
+    @Value("${recommendation.batch.page-size:200}")
+    private int pageSize;
+
+    @Value("${recommendation.batch.active-days:30}")
+    private int activeDays;
+
+    private final ForkJoinPool pool;
+    // Runs started on demand: one at a time, at most one waiting
+    private final ThreadPoolExecutor runner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1), JobSearchIndex.daemon("recommendation-batch"));
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile BatchReport lastReport;
+
+    public RecommendationBatchService(@Value("${recommendation.batch.parallelism:4}") int parallelism) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    /**
+     * Precomputed recommendations for a user, best first (empty if the batch has not covered them yet)
+     */
+    public List<UserRecommendation> getPrecomputed(Long userId) {
+        return userRecommendationRepository.findByUserIdOrderByPositionAsc(userId);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public BatchReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Start a run in the background; false if a run is already queued
+     */
+    public boolean submit(boolean full) {
+        try {
+            runner.execute(() -> {
+                try {
+                    if (full) runFull();
+                    else runIncremental();
+                } catch (Exception e) {
+                    System.out.println("Warning: recommendation batch failed: " + e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Recompute recommendations for every user active in the last {@code activeDays} days
+     */
+    @Scheduled(cron = "${recommendation.batch.full-cron:0 0 3 * * *}")
+    public BatchReport runFull() {
+        if (!running.compareAndSet(false, true)) return BatchReport.skipped();
+        try {
+            long start = System.nanoTime();
+            LocalDateTime since = LocalDateTime.now().minusDays(activeDays);
+            AtomicInteger processed = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            long afterId = 0L;
+            while (true) {
+                List<User> page = userRepository.findActiveSince(since, afterId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) break;
+                processPage(page, processed, failed);
+                afterId = page.get(page.size() - 1).getId();
+                if (page.size() < pageSize) break;
+            }
+            return report("full", start, processed.get(), failed.get());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Recompute only users whose profile changed since their last run or whose recommended jobs closed
+     */
+    @Scheduled(cron = "${recommendation.batch.incremental-cron:0 */15 * * * *}")
+    public BatchReport runIncremental() {
+        if (!running.compareAndSet(false, true)) return BatchReport.skipped();
+        try {
+            long start = System.nanoTime();
+            Set<Long> userIds = new TreeSet<>(userRecommendationRepository.findUserIdsWithStaleRecommendations(LocalDateTime.of(1970, 1, 1, 0, 0)));
+            userIds.addAll(userRecommendationRepository.findUserIdsWithClosedRecommendations());
+            AtomicInteger processed = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            List<Long> ids = new ArrayList<>(userIds);
+            for (int from = 0; from < ids.size(); from += pageSize) {
+                List<User> page = userRepository.findAllById(ids.subList(from, Math.min(ids.size(), from + pageSize)));
+                processPage(page, processed, failed);
+            }
+            return report("incremental", start, processed.get(), failed.get());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void processPage(List<User> page, AtomicInteger processed, AtomicInteger failed) {
+        try {
+            pool.submit(() -> {
+                // One bulk recommender pass per page (shared candidates, batched ML calls), then parallel writes
+                var results = jobRecommendationService.getBatchRecommendations(page, topN);
+                page.parallelStream().forEach(user -> {
+                    try {
+                        store(user, results.get(user.getId()));
+                        processed.incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        System.out.println("Warning: batch recommendations failed for user " + user.getId() + ": " + e.getMessage());
+                    }
+                });
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recommendation batch interrupted", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Recommendation batch page failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void store(User user, JobRecommendationService.JobRecommendationResult result) {
+        if (result == null) throw new IllegalStateException("no recommendations computed");
+        LocalDateTime now = LocalDateTime.now();
+        List<UserRecommendation> rows = new ArrayList<>();
+        int position = 0;
+        for (var rec : result.getRecommendations()) {
+            if (rec.getJob() == null || rec.getJob().getId() == null || "CLOSED".equals(rec.getJob().getStatus())) continue;
+            rows.add(new UserRecommendation(user.getId(), rec.getJob().getId(), position++, (float) rec.getScore(), now));
+            if (position >= topN) break;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            userRecommendationRepository.deleteByUserId(user.getId());
+            userRecommendationRepository.saveAll(rows);
+            userRepository.markRecommendationsComputed(user.getId(), now);
+        });
+    }
+
+    private BatchReport report(String mode, long startNanos, int processed, int failed) {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        BatchReport report = new BatchReport(mode, processed, failed, Math.round(seconds * 1000), processed / seconds);
+        lastReport = report;
+        System.out.println("Recommendation batch (" + mode + "): " + processed + " users, " + failed + " failed in "
+            + report.getElapsedMs() + "ms (" + String.format("%.1f", report.getUsersPerSecond()) + " users/sec)");
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+        runner.shutdownNow();
+    }
+
+    public static class BatchReport {
+        private final String mode;
+        private final int usersProcessed;
+        private final int usersFailed;
+        private final long elapsedMs;
+        private final double usersPerSecond;
+
+        public BatchReport(String mode, int usersProcessed, int usersFailed, long elapsedMs, double usersPerSecond) {
+            this.mode = mode;
+            this.usersProcessed = usersProcessed;
+            this.usersFailed = usersFailed;
+            this.elapsedMs = elapsedMs;
+            this.usersPerSecond = usersPerSecond;
+        }
+
+        static BatchReport skipped() {
+            return new BatchReport("skipped (already running)", 0, 0, 0, 0.0);
+        }
+
+        public String getMode() { return mode; }
+        public int getUsersProcessed() { return usersProcessed; }
+        public int getUsersFailed() { return usersFailed; }
+        public long getElapsedMs() { return elapsedMs; }
+        public double getUsersPerSecond() { return usersPerSecond; }
+    }
+}
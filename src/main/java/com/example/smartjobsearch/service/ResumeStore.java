@@ -0,0 +1,27 @@
+package com.example.smartjobsearch.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Content-addressed resume storage. A stored body is identified by a storage key derived from its
+ * content, identical uploads share one copy, and each store() takes a reference that release() gives
+ * back; the body is removed with its last reference.
+ */
+public interface ResumeStore {
+
+    /**
+     * Stream {@code in} into the store and take a reference to it; returns the storage key
+     */
+    String store(InputStream in) throws IOException;
+
+    /**
+     * Drop one reference taken by store()
+     */
+    void release(String key) throws IOException;
+
+    Optional<Resource> load(String key);
+}
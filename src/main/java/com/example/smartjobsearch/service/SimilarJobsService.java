@@ -0,0 +1,171 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "More like this": precomputed nearest neighbours per job (embedding cosine, or term-vector cosine
+ * until a job's embedding is available) over open jobs only. Lists are refreshed incrementally
+ * whenever a job is saved, and a background pass computes missing, stale and term-vector lists, so
+ * serving similar jobs is a cache read rather than a scan of the catalog.
+ */
+@Service
+public class SimilarJobsService implements JobIndexListener {
+
+    @Autowired
+    private JobSearchIndex jobSearchIndex;
+
+    @Value("${search.similar.neighbours:20}")
+    private int neighbours;
+
+    private final Map<Long, List<Neighbour>> cache = new ConcurrentHashMap<>();
+    // Cached lists computed before the job had an embedding; recomputed once it has one
+    private final Set<Long> termVectorLists = ConcurrentHashMap.newKeySet();
+    // Cached lists that lost a neighbour and may be short; recomputed by the background pass
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void register() {
+        jobSearchIndex.addListener(this);
+    }
+
+    /**
+     * Nearest open jobs to the given job, best first
+     */
+    public List<Job> getSimilarJobs(Long jobId, int limit) {
+        List<Neighbour> list = cache.get(jobId);
+        if (list == null) list = isOpen(jobId) ? computeAndCache(jobId) : compute(jobId);
+        List<Job> result = new ArrayList<>();
+        for (Neighbour n : list) {
+            if (result.size() >= limit) break;
+            jobSearchIndex.getJob(n.jobId())
+                .filter(j -> !"CLOSED".equals(j.getStatus()))
+                .ifPresent(result::add);
+        }
+        return result;
+    }
+
+    @Override
+    public void jobIndexed(Job job) {
+        Long id = job.getId();
+        if (isOpen(id)) computeAndCache(id);
+        else evict(id);
+        offer(id);
+    }
+
+    /**
+     * A whole import batch: scanning the catalog for every row would cost rows x catalog, so the
+     * batch is only offered to the lists already cached (cached lists x rows) and the batch's own
+     * lists are left to the background pass
+     */
+    @Override
+    public void jobsIndexed(List<Job> jobs) {
+        for (Job job : jobs) {
+            evict(job.getId());
+            dirty.add(job.getId());
+        }
+        for (Job job : jobs) offer(job.getId());
+    }
+
+    // Insert, move or drop the job in every cached list it belongs to; a closed job is dropped
+    private void offer(Long id) {
+        boolean open = isOpen(id);
+        for (Map.Entry<Long, List<Neighbour>> entry : cache.entrySet()) {
+            Long other = entry.getKey();
+            if (other.equals(id)) continue;
+            List<Neighbour> current = entry.getValue();
+            boolean wasNeighbour = current.stream().anyMatch(n -> n.jobId() == id);
+            double sim = open ? jobSearchIndex.similarity(other, id) : 0.0;
+            boolean qualifies = open && sim > 0
+                && (current.size() < neighbours || sim > current.get(current.size() - 1).score());
+            if (!wasNeighbour && !qualifies) continue;
+
+            List<Neighbour> updated = new ArrayList<>(current.size() + 1);
+            for (Neighbour n : current) if (n.jobId() != id) updated.add(n);
+            if (qualifies) {
+                updated.add(new Neighbour(id, sim));
+                updated.sort(Comparator.comparingDouble(Neighbour::score).reversed());
+                if (updated.size() > neighbours) updated = updated.subList(0, neighbours);
+            } else if (current.size() >= neighbours) {
+                // The job moved away or closed and left a gap we cannot fill without a scan
+                dirty.add(other);
+            }
+            cache.put(other, List.copyOf(updated));
+        }
+    }
+
+    @Override
+    public void jobRemoved(Long jobId) {
+        evict(jobId);
+        for (Map.Entry<Long, List<Neighbour>> entry : cache.entrySet()) {
+            List<Neighbour> current = entry.getValue();
+            if (current.stream().anyMatch(n -> n.jobId() == jobId)) {
+                cache.put(entry.getKey(), current.stream().filter(n -> n.jobId() != jobId).toList());
+                if (current.size() >= neighbours) dirty.add(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Background pass: computes the list of every open job that has none yet (all of them after a
+     * restart), lost a neighbour, or was computed from term vectors and now has an embedding
+     */
+    @Scheduled(fixedDelayString = "${search.similar.refresh-ms:30000}")
+    public void refresh() {
+        int computed = 0;
+        for (Long id : List.copyOf(jobSearchIndex.jobIds())) {
+            if (!isOpen(id)) {
+                evict(id);
+                continue;
+            }
+            boolean stale = dirty.remove(id);
+            if (stale || !cache.containsKey(id)
+                || (termVectorLists.contains(id) && jobSearchIndex.getEmbedding(id) != null)) {
+                computeAndCache(id);
+                computed++;
+            }
+        }
+        if (computed > 0) System.out.println("SimilarJobsService - computed similar jobs for " + computed + " jobs");
+    }
+
+    private List<Neighbour> computeAndCache(Long jobId) {
+        boolean embedded = jobSearchIndex.getEmbedding(jobId) != null;
+        List<Neighbour> list = compute(jobId);
+        cache.put(jobId, list);
+        if (embedded) termVectorLists.remove(jobId);
+        else termVectorLists.add(jobId);
+        return list;
+    }
+
+    private void evict(Long jobId) {
+        cache.remove(jobId);
+        termVectorLists.remove(jobId);
+        dirty.remove(jobId);
+    }
+
+    private boolean isOpen(Long jobId) {
+        return jobSearchIndex.getJob(jobId).filter(j -> !"CLOSED".equals(j.getStatus())).isPresent();
+    }
+
+    private List<Neighbour> compute(Long jobId) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long other : jobSearchIndex.jobIds()) {
+            if (other.equals(jobId) || !isOpen(other)) continue;
+            double sim = jobSearchIndex.similarity(jobId, other);
+            if (sim > 0) scores.put(other, sim);
+        }
+        List<Neighbour> list = new ArrayList<>();
+        for (Long id : JobSearchIndex.topK(scores, neighbours)) list.add(new Neighbour(id, scores.get(id)));
+        return List.copyOf(list);
+    }
+
+    private record Neighbour(long jobId, double score) {
+    }
+}
@@ -5,6 +5,7 @@ import com.example.smartjobsearch.repo.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -31,4 +32,8 @@ public class UserService {
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
+
+    public List<User> findAllById(List<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
 }
@@ -0,0 +1,113 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.AppliedJob;
+import com.example.smartjobsearch.repo.AppliedJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counter arithmetic on apply / move / remove, and reconciliation against applied_job.
+ */
+@SpringBootTest
+class ApplicantCountServiceTest {
+
+    private static final long JOB = 910_001L, OTHER_JOB = 910_002L;
+
+    @Autowired
+    private ApplicantCountService applicantCountService;
+
+    @Autowired
+    private AppliedJobRepository appliedJobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from applied_job where job_id in (?, ?)", JOB, OTHER_JOB);
+        jdbcTemplate.update("delete from job_applicant_count where job_id in (?, ?)", JOB, OTHER_JOB);
+    }
+
+    private Map<String, Long> counts(long jobId) {
+        return applicantCountService.getCounts(List.of(jobId)).getOrDefault(jobId, Map.of());
+    }
+
+    private AppliedJob application(long userId, long jobId, String status) {
+        AppliedJob app = new AppliedJob();
+        app.setUserId(userId);
+        app.setJobId(jobId);
+        app.setStatus(status);
+        app.setAppliedAt(LocalDateTime.now());
+        return appliedJobRepository.save(app);
+    }
+
+    @Test
+    void applyMoveAndRemoveAdjustTheCounters() {
+        applicantCountService.recordApplied(JOB, "PENDING");
+        applicantCountService.recordApplied(JOB, "PENDING");
+        applicantCountService.recordApplied(JOB, "PENDING");
+        applicantCountService.recordMoved(JOB, "PENDING", "APPROVED", 2);
+        applicantCountService.recordMoved(JOB, "APPROVED", "APPROVED", 1);
+        applicantCountService.recordRemoved(JOB, "APPROVED");
+
+        // Statuses whose counter dropped to zero are not reported
+        assertEquals(Map.of("PENDING", 1L, "APPROVED", 1L), counts(JOB));
+        applicantCountService.recordRemoved(JOB, "APPROVED");
+        assertEquals(Map.of("PENDING", 1L), counts(JOB));
+    }
+
+    @Test
+    void batchedMoveAppliesTheNetDeltaPerJobAndStatus() {
+        for (int i = 0; i < 3; i++) applicantCountService.recordApplied(JOB, "PENDING");
+        applicantCountService.recordApplied(JOB, "REJECTED");
+        applicantCountService.recordApplied(OTHER_JOB, "PENDING");
+
+        AppliedJob a = new AppliedJob();
+        a.setJobId(JOB);
+        a.setStatus("PENDING");
+        AppliedJob b = new AppliedJob();
+        b.setJobId(JOB);
+        b.setStatus("PENDING");
+        AppliedJob c = new AppliedJob();
+        c.setJobId(JOB);
+        c.setStatus("REJECTED");
+        AppliedJob d = new AppliedJob();
+        d.setJobId(OTHER_JOB);
+        d.setStatus("PENDING");
+        AppliedJob alreadyThere = new AppliedJob();
+        alreadyThere.setJobId(JOB);
+        alreadyThere.setStatus("APPROVED");
+        applicantCountService.recordMoved(List.of(a, b, c, d, alreadyThere), "APPROVED");
+
+        assertEquals(Map.of("PENDING", 1L, "APPROVED", 3L), counts(JOB));
+        assertEquals(Map.of("APPROVED", 1L), counts(OTHER_JOB));
+    }
+
+    @Test
+    void reconcileRepairsOnlyTheCountersThatDrifted() {
+        application(1, JOB, "PENDING");
+        application(2, JOB, "PENDING");
+        application(3, JOB, "APPROVED");
+        application(1, OTHER_JOB, "PENDING");
+        // PENDING is inflated, APPROVED is missing, REJECTED has no applications left; OTHER_JOB is right
+        jdbcTemplate.update("insert into job_applicant_count (job_id, status, applicants) values (?, ?, ?)", JOB, "PENDING", 5);
+        jdbcTemplate.update("insert into job_applicant_count (job_id, status, applicants) values (?, ?, ?)", JOB, "REJECTED", 2);
+        jdbcTemplate.update("insert into job_applicant_count (job_id, status, applicants) values (?, ?, ?)", OTHER_JOB, "PENDING", 1);
+
+        int repaired = applicantCountService.reconcile();
+
+        assertTrue(repaired >= 3);
+        assertEquals(Map.of("PENDING", 2L, "APPROVED", 1L), counts(JOB));
+        assertEquals(Map.of("PENDING", 1L), counts(OTHER_JOB));
+        assertEquals(0, applicantCountService.reconcile());
+    }
+}
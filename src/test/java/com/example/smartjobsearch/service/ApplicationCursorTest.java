@@ -0,0 +1,29 @@
+package com.example.smartjobsearch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationCursorTest {
+
+    @Test
+    void applicationCursorRoundTrips() {
+        ApplicationCursor cursor = new ApplicationCursor(LocalDateTime.of(2024, 5, 1, 9, 30, 15, 123_000_000), 42L);
+        assertEquals(cursor, ApplicationCursor.decode(cursor.encode()));
+        assertNull(ApplicationCursor.decode(null));
+        assertNull(ApplicationCursor.decode(" "));
+        assertThrows(IllegalArgumentException.class, () -> ApplicationCursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    void rankCursorRoundTripsScoredAndUnscored() {
+        ApplicantRankCursor scored = new ApplicantRankCursor(0.8125, 7L);
+        ApplicantRankCursor unscored = new ApplicantRankCursor(null, 9L);
+        assertEquals(scored, ApplicantRankCursor.decode(scored.encode()));
+        assertEquals(unscored, ApplicantRankCursor.decode(unscored.encode()));
+        assertNull(ApplicantRankCursor.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> ApplicantRankCursor.decode("???"));
+    }
+}
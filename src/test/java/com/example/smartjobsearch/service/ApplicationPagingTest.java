@@ -0,0 +1,110 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.AppliedJob;
+import com.example.smartjobsearch.model.AppliedJobView;
+import com.example.smartjobsearch.repo.AppliedJobRepository;
+import com.example.smartjobsearch.repo.AppliedJobViewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walking every page must return each application exactly once, in order, for page-number and
+ * keyset paging alike.
+ */
+@SpringBootTest
+@Transactional
+class ApplicationPagingTest {
+
+    private static final long USER_ID = 987_654_321L;
+    private static final long JOB_ID = 987_654_321L;
+
+    @Autowired
+    private AppliedJobViewService appliedJobViewService;
+
+    @Autowired
+    private AppliedJobViewRepository appliedJobViewRepository;
+
+    @Autowired
+    private AppliedJobService appliedJobService;
+
+    @Autowired
+    private AppliedJobRepository appliedJobRepository;
+
+    @Test
+    void appliedPagesCoverEveryRowOnce() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<Long> expected = new ArrayList<>();
+        for (long i = 1; i <= 11; i++) {
+            AppliedJobView view = new AppliedJobView();
+            view.setApplicationId(USER_ID + i);
+            view.setUserId(USER_ID);
+            view.setJobId(i);
+            view.setStatus("Pending");
+            view.setAppliedAt(base.plusMinutes(i / 2)); // pairs share a timestamp, so ids break ties
+            appliedJobViewRepository.save(view);
+            expected.add(0, USER_ID + i);
+        }
+
+        List<Long> byPage = new ArrayList<>();
+        for (int page = 0; page < 10; page++) {
+            AppliedJobViewService.AppliedPage result = appliedJobViewService.findApplied(USER_ID, null, null, page, 4);
+            result.views().forEach(v -> byPage.add(v.getApplicationId()));
+            if (result.nextCursor() == null) break;
+        }
+        assertEquals(expected, byPage);
+
+        List<Long> byCursor = new ArrayList<>();
+        ApplicationCursor cursor = null;
+        do {
+            AppliedJobViewService.AppliedPage result = appliedJobViewService.findApplied(USER_ID, null, cursor, 0, 4);
+            result.views().forEach(v -> byCursor.add(v.getApplicationId()));
+            cursor = result.nextCursor() != null ? ApplicationCursor.decode(result.nextCursor().encode()) : null;
+        } while (cursor != null);
+        assertEquals(expected, byCursor);
+    }
+
+    @Test
+    void rankedPagesCoverScoredThenUnscored() {
+        Double[] scores = { 0.5, null, 0.9, 0.5, null, 0.1, 0.5 };
+        for (int i = 0; i < scores.length; i++) {
+            AppliedJob app = new AppliedJob();
+            app.setUserId(USER_ID + i);
+            app.setJobId(JOB_ID);
+            app.setStatus("Pending");
+            app.setAppliedAt(LocalDateTime.now());
+            app.setMatchScore(scores[i]);
+            appliedJobRepository.save(app);
+        }
+
+        List<AppliedJob> all = new ArrayList<>();
+        ApplicantRankCursor cursor = null;
+        do {
+            AppliedJobService.RankedPage page = appliedJobService.findByJobIdRanked(JOB_ID, null, cursor, 2);
+            assertTrue(page.applications().size() <= 2);
+            all.addAll(page.applications());
+            cursor = page.nextCursor() != null ? ApplicantRankCursor.decode(page.nextCursor().encode()) : null;
+        } while (cursor != null);
+
+        assertEquals(scores.length, all.size());
+        assertEquals(scores.length, all.stream().map(AppliedJob::getId).distinct().count());
+        for (int i = 1; i < all.size(); i++) {
+            AppliedJob prev = all.get(i - 1);
+            AppliedJob cur = all.get(i);
+            if (prev.getMatchScore() == null) {
+                assertNull(cur.getMatchScore());
+                assertTrue(cur.getId() < prev.getId());
+            } else if (cur.getMatchScore() != null) {
+                int cmp = Double.compare(prev.getMatchScore(), cur.getMatchScore());
+                assertTrue(cmp > 0 || (cmp == 0 && cur.getId() < prev.getId()));
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.repo.AppliedJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CoApplicationServiceTest {
+
+    private static final long A = 10, B = 20, C = 30;
+
+    private CoApplicationService service;
+    private ExecutorService updater;
+
+    @BeforeEach
+    void setUp() {
+        // Users 1 and 2 applied to A and B, user 3 to A and C
+        AppliedJobRepository repository = mock(AppliedJobRepository.class);
+        when(repository.findAllUserJobPairs()).thenReturn(List.of(
+            new Object[] { 1L, A }, new Object[] { 1L, B },
+            new Object[] { 2L, A }, new Object[] { 2L, B },
+            new Object[] { 3L, A }, new Object[] { 3L, C }));
+        service = new CoApplicationService();
+        ReflectionTestUtils.setField(service, "appliedJobRepository", repository);
+        ReflectionTestUtils.setField(service, "neighbours", 20);
+        updater = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(service, "updater", updater);
+        service.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+        updater.shutdownNow();
+    }
+
+    // Waits for the queued updates
+    private void flush() throws InterruptedException {
+        updater.shutdown();
+        assertTrue(updater.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void neighboursAreCosineOfApplicantSetsBestFirst() {
+        Map<Long, Double> neighbours = service.getNeighbours(A);
+
+        assertEquals(List.of(B, C), List.copyOf(neighbours.keySet()));
+        assertEquals(2 / Math.sqrt(3 * 2), neighbours.get(B), 1e-9);
+        assertEquals(1 / Math.sqrt(3), neighbours.get(C), 1e-9);
+        assertEquals(Map.of(A, 2 / Math.sqrt(3 * 2)), service.getNeighbours(B));
+    }
+
+    @Test
+    void userScoresSkipAppliedJobsAndAreNormalised() {
+        assertEquals(Map.of(B, 1.0), service.scoresForUser(3L));
+        assertEquals(Map.of(C, 1.0), service.scoresForUser(1L));
+        assertEquals(Map.of(), service.scoresForUser(99L));
+    }
+
+    @Test
+    void addingAndRemovingAnApplicationRefreshesEveryCoAppliedJob() throws InterruptedException {
+        service.recordApplication(3L, B);
+        service.removeApplication(3L, B);
+        service.recordApplication(3L, B);
+        flush();
+
+        // A and B now share all three applicants; C, co-applied through user 3, sees B as well
+        assertEquals(1.0, service.getNeighbours(A).get(B), 1e-9);
+        assertEquals(1 / Math.sqrt(3), service.getNeighbours(C).get(B), 1e-9);
+
+        setUp();
+        service.recordApplication(3L, B);
+        service.removeApplication(3L, B);
+        flush();
+        assertEquals(2 / Math.sqrt(3 * 2), service.getNeighbours(A).get(B), 1e-9);
+        assertFalse(service.getNeighbours(C).containsKey(B));
+    }
+
+    @Test
+    void changesApplyOnlyWhenTheirTransactionCommits() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        service.recordApplication(3L, B);
+        // Rolled back: the synchronization is discarded without afterCommit
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.recordApplication(1L, C);
+        assertEquals(2 / Math.sqrt(3 * 2), service.getNeighbours(A).get(B), 1e-9);
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) sync.afterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+        flush();
+
+        assertEquals(2 / Math.sqrt(3 * 2), service.getNeighbours(A).get(B), 1e-9);
+        assertEquals(1 / Math.sqrt(2 * 2), service.getNeighbours(B).get(C), 1e-9);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.model.JobAlert;
+import com.example.smartjobsearch.model.SavedSearch;
+import com.example.smartjobsearch.repo.JobAlertRepository;
+import com.example.smartjobsearch.repo.SavedSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JobAlertServiceTest {
+
+    private final SavedSearchRepository savedSearchRepository = mock(SavedSearchRepository.class);
+    private final JobAlertRepository jobAlertRepository = mock(JobAlertRepository.class);
+    private final List<SavedSearch> searches = new ArrayList<>();
+    private JobAlertService service;
+
+    @BeforeEach
+    void setUp() {
+        when(savedSearchRepository.findAll()).thenReturn(searches);
+        when(jobAlertRepository.findSavedSearchIdsByJobId(any())).thenReturn(List.of());
+        service = new JobAlertService();
+        ReflectionTestUtils.setField(service, "savedSearchRepository", savedSearchRepository);
+        ReflectionTestUtils.setField(service, "jobAlertRepository", jobAlertRepository);
+        ReflectionTestUtils.setField(service, "maxSavedSearchesPerUser", 20);
+    }
+
+    private void saved(long id, long userId, String keywords, String location, String jobType, Integer minSalary) {
+        SavedSearch search = new SavedSearch();
+        search.setId(id);
+        search.setUserId(userId);
+        search.setKeywords(keywords);
+        search.setLocation(location);
+        search.setJobType(jobType);
+        search.setMinSalary(minSalary);
+        searches.add(search);
+    }
+
+    private static Job job(long id, String title, String location, String jobType, String salary) {
+        Job job = new Job();
+        job.setId(id);
+        job.setTitle(title);
+        job.setLocation(location);
+        job.setJobType(jobType);
+        job.setSalary(salary);
+        job.setPostedBy(99L);
+        return job;
+    }
+
+    // Saved search ids alerted for the job
+    @SuppressWarnings("unchecked")
+    private Set<Long> alertedSearches(Job job) {
+        clearInvocations(jobAlertRepository);
+        service.percolate(job);
+        ArgumentCaptor<List<JobAlert>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jobAlertRepository, atMost(1)).saveAll(captor.capture());
+        if (captor.getAllValues().isEmpty()) return Set.of();
+        return captor.getValue().stream().map(JobAlert::getSavedSearchId).collect(Collectors.toSet());
+    }
+
+    @Test
+    void everyKeywordAndFilterMustMatch() {
+        saved(1, 1, "barista coffee", null, null, null);
+        saved(2, 2, "barista", "Leeds", "part_time", null);
+        saved(3, 3, "barista", "York", null, null);
+        saved(4, 4, "barista", null, null, 12);
+
+        Job job = job(10, "Barista - specialty coffee", "Leeds, UK", "Part-Time", "£11.50 per hour");
+
+        assertEquals(Set.of(1L, 2L), alertedSearches(job));
+    }
+
+    @Test
+    void filterOnlySearchesAreAnchoredOnTheirLocationOrJobType() {
+        saved(1, 1, null, "leeds", null, null);
+        saved(2, 2, null, null, "Full Time", null);
+
+        assertEquals(Set.of(1L), alertedSearches(job(10, "Chef", "Leeds", "Part Time", null)));
+        assertEquals(Set.of(2L), alertedSearches(job(11, "Chef", "Paris", "full-time", null)));
+    }
+
+    @Test
+    void minimumSalaryComparesTheFirstNumberInTheSalary() {
+        saved(1, 1, "developer", null, null, 50000);
+
+        assertEquals(Set.of(1L), alertedSearches(job(10, "Developer", null, null, "$55,000 - $70,000")));
+        assertEquals(Set.of(), alertedSearches(job(11, "Developer", null, null, "45,000")));
+        assertEquals(Set.of(), alertedSearches(job(12, "Developer", null, null, "competitive")));
+    }
+
+    @Test
+    void closedDuplicateOwnAndAlreadyAlertedJobsDoNotAlert() {
+        saved(1, 1, "developer", null, null, null);
+        saved(2, 99, "developer", null, null, null);
+
+        Job closed = job(10, "Developer", null, null, null);
+        closed.setStatus("CLOSED");
+        Job duplicate = job(11, "Developer", null, null, null);
+        duplicate.setDuplicateOf(5L);
+        assertEquals(Set.of(), alertedSearches(closed));
+        assertEquals(Set.of(), alertedSearches(duplicate));
+
+        // Search 2 belongs to the poster; search 1 was alerted for this job before
+        when(jobAlertRepository.findSavedSearchIdsByJobId(12L)).thenReturn(List.of(1L));
+        assertEquals(Set.of(), alertedSearches(job(12, "Developer", null, null, null)));
+    }
+
+    @Test
+    void deletedSearchStopsMatching() {
+        saved(1, 1, "developer", null, null, null);
+        when(savedSearchRepository.findById(1L)).thenReturn(java.util.Optional.of(searches.get(0)));
+        assertEquals(Set.of(1L), alertedSearches(job(10, "Developer", null, null, null)));
+
+        assertTrue(service.deleteSavedSearch(1L, 1L));
+
+        assertEquals(Set.of(), alertedSearches(job(11, "Developer", null, null, null)));
+    }
+
+    @Test
+    void salaryParsingTakesTheFirstNumber() {
+        assertEquals(55000, JobAlertService.parseSalary("$55,000 - $70,000"));
+        assertNull(JobAlertService.parseSalary("negotiable"));
+        assertNull(JobAlertService.parseSalary(null));
+    }
+}
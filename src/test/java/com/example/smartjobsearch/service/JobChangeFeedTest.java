@@ -0,0 +1,125 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.model.JobChange;
+import com.example.smartjobsearch.repo.JobChangeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The change feed serves the latest change per job, tombstones deleted jobs, and numbers changes in
+ * commit order so a slow transaction cannot land behind a consumer's cursor.
+ */
+@SpringBootTest
+class JobChangeFeedTest {
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JobChangeSequencer jobChangeSequencer;
+
+    @Autowired
+    private JobChangeRepository jobChangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Job saveJob(String title) {
+        Job job = new Job();
+        job.setTitle(title);
+        job.setCompany("Feed Test Ltd");
+        job.setDescription(title + " wanted");
+        return jobService.saveJob(job);
+    }
+
+    // Everything committed so far is numbered; returns the cursor a consumer would be at
+    private long caughtUpCursor() {
+        jobChangeSequencer.sequencePending();
+        return jobChangeRepository.maxSeq();
+    }
+
+    private List<Map<String, Object>> changesFor(long since, Long jobId) {
+        jobChangeSequencer.sequencePending();
+        return jobService.getChangesSince(since, 5000).changes().stream()
+            .filter(c -> jobId.equals(c.get("jobId"))).toList();
+    }
+
+    @Test
+    void laterChangesSupersedeEarlierOnesForTheSameJob() {
+        long cursor = caughtUpCursor();
+        Job job = saveJob("Baker");
+        job.setTitle("Head baker");
+        jobService.saveJob(job);
+
+        List<Map<String, Object>> changes = changesFor(cursor, job.getId());
+        assertEquals(1, changes.size());
+        assertEquals(JobChange.UPSERT, changes.get(0).get("type"));
+        assertEquals("Head baker", ((Job) changes.get(0).get("job")).getTitle());
+
+        jobService.deleteJob(job.getId());
+        changes = changesFor(cursor, job.getId());
+        assertEquals(1, changes.size());
+        assertEquals(JobChange.DELETE, changes.get(0).get("type"));
+        assertNull(changes.get(0).get("job"));
+    }
+
+    @Test
+    void deletingAnUnknownJobWritesNoTombstone() {
+        long cursor = caughtUpCursor();
+        long before = jobChangeRepository.count();
+
+        jobService.deleteJob(Long.MAX_VALUE);
+
+        assertEquals(before, jobChangeRepository.count());
+        assertTrue(changesFor(cursor, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void aChangeCommittedLateIsNumberedAfterTheConsumersCursor() throws Exception {
+        long start = caughtUpCursor();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CompletableFuture<Job> slow = CompletableFuture.supplyAsync(() -> tx.execute(status -> {
+            Job job = saveJob("Night porter");
+            written.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return job;
+        }));
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+
+        // A later transaction commits first and the consumer reads past it
+        Job fast = saveJob("Day porter");
+        jobChangeSequencer.sequencePending();
+        JobService.ChangeFeed feed = jobService.getChangesSince(start, 5000);
+        assertTrue(feed.changes().stream().anyMatch(c -> fast.getId().equals(c.get("jobId"))));
+        long cursor = feed.nextCursor();
+
+        release.countDown();
+        Job late = slow.get(5, TimeUnit.SECONDS);
+        try {
+            List<Map<String, Object>> changes = changesFor(cursor, late.getId());
+            assertEquals(1, changes.size());
+            assertTrue((Long) changes.get(0).get("seq") > cursor);
+        } finally {
+            jobService.deleteJob(late.getId());
+            jobService.deleteJob(fast.getId());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The in-memory job indexes follow the database only after commit: a rolled-back save or delete
+ * leaves no trace in them.
+ */
+@SpringBootTest
+class JobIndexCommitTest {
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JobSearchIndex jobSearchIndex;
+
+    @Autowired
+    private NearDuplicateIndex nearDuplicateIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static Job job() {
+        Job job = new Job();
+        job.setTitle("Lighthouse keeper");
+        job.setCompany("Coastal Trust");
+        job.setLocation("Cornwall");
+        job.setDescription("Keep the lamp lit through the night and log passing ships in the harbour book");
+        return job;
+    }
+
+    @Test
+    void rolledBackSaveIsNotIndexed() {
+        Long id = new TransactionTemplate(transactionManager).execute(status -> {
+            Long saved = jobService.saveJob(job()).getId();
+            status.setRollbackOnly();
+            return saved;
+        });
+
+        assertTrue(jobSearchIndex.getJob(id).isEmpty());
+        assertNull(nearDuplicateIndex.findDuplicate(nearDuplicateIndex.signature(job()), null));
+    }
+
+    @Test
+    void committedSaveAndDeleteReachTheIndexes() {
+        Long id = jobService.saveJob(job()).getId();
+        try {
+            assertTrue(jobSearchIndex.getJob(id).isPresent());
+            assertEquals(id, nearDuplicateIndex.findDuplicate(nearDuplicateIndex.signature(job()), null));
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jobService.deleteJob(id);
+                status.setRollbackOnly();
+            });
+            assertTrue(jobSearchIndex.getJob(id).isPresent());
+        } finally {
+            jobService.deleteJob(id);
+        }
+        assertTrue(jobSearchIndex.getJob(id).isEmpty());
+        assertNull(nearDuplicateIndex.findDuplicate(nearDuplicateIndex.signature(job()), null));
+    }
+}
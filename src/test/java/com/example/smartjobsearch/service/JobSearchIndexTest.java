@@ -0,0 +1,148 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.repo.JobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JobSearchIndexTest {
+
+    private final JobRepository jobRepository = mock(JobRepository.class);
+    private final CohereApiService cohereApiService = mock(CohereApiService.class);
+    private JobSearchIndex index;
+
+    static Job job(long id, String title, String location, String jobType, String skills, String status) {
+        Job job = new Job();
+        job.setId(id);
+        job.setTitle(title);
+        job.setLocation(location);
+        job.setJobType(jobType);
+        job.setSkills(skills);
+        job.setStatus(status);
+        return job;
+    }
+
+    private JobSearchIndex index(Job... jobs) {
+        when(jobRepository.findAll()).thenReturn(List.of(jobs));
+        index = new JobSearchIndex();
+        ReflectionTestUtils.setField(index, "jobRepository", jobRepository);
+        ReflectionTestUtils.setField(index, "cohereApiService", cohereApiService);
+        ReflectionTestUtils.setField(index, "candidatesPerStage", 100);
+        ReflectionTestUtils.setField(index, "rrfK", 60);
+        ReflectionTestUtils.setField(index, "lexicalBudgetMs", 5000L);
+        ReflectionTestUtils.setField(index, "vectorBudgetMs", 5000L);
+        ReflectionTestUtils.setField(index, "warmupEmbeddingBatch", 2);
+        return index;
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (index != null) index.shutdown();
+    }
+
+    private static List<Long> ids(List<Job> jobs) {
+        return jobs.stream().map(Job::getId).toList();
+    }
+
+    @Test
+    void candidatesRankJobsMatchingMoreFacetsFirstAndTopUpWithNewestOpenJobs() {
+        JobSearchIndex index = index(
+            job(1, "Java developer", "Berlin, Germany", "Full Time", "java, spring", "OPEN"),
+            job(2, "Java developer", "Munich", "Full Time", "java", "OPEN"),
+            job(3, "Chef", "Paris", "Part Time", "cooking", "OPEN"),
+            job(4, "Barista", "Rome", "Part Time", "coffee", "OPEN"),
+            job(5, "Java lead", "Berlin", "full-time", "java", "CLOSED"));
+
+        List<Job> candidates = index.candidates("Berlin", "full_time", "Java, Kotlin", 3);
+
+        // Job 1: location + type + skill; job 2: type + skill; then the newest open job not yet included
+        assertEquals(List.of(1L, 2L, 4L), ids(candidates));
+    }
+
+    @Test
+    void candidatesNeverIncludeClosedJobsAndAreBoundedByMax() {
+        JobSearchIndex index = index(
+            job(1, "Java developer", "Berlin", null, "java", "CLOSED"),
+            job(2, "Java developer", "Berlin", null, "java", "OPEN"),
+            job(3, "Chef", "Paris", null, "cooking", "OPEN"));
+
+        assertEquals(List.of(2L), ids(index.candidates("Berlin", null, "java", 1)));
+        assertEquals(List.of(2L, 3L), ids(index.candidates("Berlin", null, "java", 10)));
+    }
+
+    private static List<Double> vector(double... values) {
+        List<Double> v = new ArrayList<>();
+        for (double x : values) v.add(x);
+        return v;
+    }
+
+    // Job embeddings by title keyword; the query "python" embeds to [1, 0]
+    private void stubEmbeddings() {
+        when(cohereApiService.getEmbeddings(anyList())).thenAnswer(inv -> {
+            List<String> texts = inv.getArgument(0);
+            List<List<Double>> out = new ArrayList<>();
+            for (String text : texts) {
+                if (text.contains("developer")) out.add(vector(0, 1));
+                else if (text.contains("analyst")) out.add(vector(1, 0.1));
+                else out.add(vector(1, 0));
+            }
+            return out;
+        });
+        when(cohereApiService.getEmbedding("python")).thenReturn(vector(1, 0));
+    }
+
+    private JobSearchIndex embeddedIndex() throws InterruptedException {
+        stubEmbeddings();
+        JobSearchIndex index = index(
+            job(1, "python python developer", null, null, null, "OPEN"),
+            job(2, "python analyst", null, null, null, "OPEN"),
+            job(3, "data engineer", null, null, null, "OPEN"));
+        index.warmUp();
+        for (int i = 0; i < 500 && index.getEmbedding(3L) == null; i++) Thread.sleep(10);
+        assertNotNull(index.getEmbedding(1L));
+        return index;
+    }
+
+    @Test
+    void hybridSearchFusesBothRankingsWithReciprocalRank() throws InterruptedException {
+        JobSearchIndex index = embeddedIndex();
+
+        // Lexical: 1, 2. Vector: 3, 2, 1. RRF: 1 (1/61 + 1/63) > 2 (2/62) > 3 (1/61)
+        assertEquals(List.of(1L, 2L), index.lexicalSearch("python", 10));
+        assertEquals(List.of(3L, 2L, 1L), index.vectorSearch("python", 10));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.hybridSearch("python", 10)));
+        assertEquals(List.of(1L, 2L), ids(index.hybridSearch("python", 2)));
+    }
+
+    @Test
+    void hybridSearchKeepsLexicalResultsWhenTheVectorStageFails() throws InterruptedException {
+        JobSearchIndex index = embeddedIndex();
+        when(cohereApiService.getEmbedding("python")).thenThrow(new IllegalStateException("embedding service down"));
+
+        assertEquals(List.of(1L, 2L), ids(index.hybridSearch("python", 10)));
+    }
+
+    @Test
+    void warmUpEmbedsTheCatalogInBatches() throws InterruptedException {
+        embeddedIndex();
+
+        // Three jobs in batches of two; never one call per job
+        verify(cohereApiService, times(2)).getEmbeddings(anyList());
+        verify(cohereApiService, never()).getEmbedding(anyString());
+    }
+
+    @Test
+    void locationKeysCoverTheWholeValueAndEachPart() {
+        assertEquals(java.util.Set.of("loc:berlin, germany", "loc:berlin", "loc:germany"),
+            JobSearchIndex.locationKeys(" Berlin, Germany "));
+        assertEquals("full-time", JobSearchIndex.normalizeJobType("Full_Time"));
+        assertNull(JobSearchIndex.normalizeJobType(" "));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.controller.JobController;
+import com.example.smartjobsearch.model.Job;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Job updates are optimistic: a stale copy cannot overwrite a newer version, while clients that
+ * post only the editable fields update the stored job without knowing its version.
+ */
+@SpringBootTest
+class JobUpdateConflictTest {
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JobController jobController;
+
+    private Long jobId;
+
+    private Job newJob() {
+        Job job = new Job();
+        job.setTitle("Warehouse associate");
+        job.setCompany("Acme Logistics");
+        job.setLocation("Leeds");
+        job.setDescription("Pick and pack orders");
+        job.setSkills("forklift, inventory");
+        Job saved = jobService.saveJob(job);
+        jobId = saved.getId();
+        return saved;
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (jobId != null) jobService.deleteJob(jobId);
+    }
+
+    @Test
+    void staleCopyIsRejected() {
+        newJob();
+        Job first = jobService.getJobById(jobId).orElseThrow();
+        Job stale = jobService.getJobById(jobId).orElseThrow();
+
+        first.setTitle("Senior warehouse associate");
+        jobService.saveJob(first);
+
+        stale.setTitle("Night shift associate");
+        assertThrows(OptimisticLockingFailureException.class, () -> jobService.saveJob(stale));
+        assertEquals("Senior warehouse associate", jobService.getJobById(jobId).orElseThrow().getTitle());
+    }
+
+    @Test
+    void postWithIdUpdatesEditableFieldsWithoutAVersion() {
+        newJob();
+        Job renamed = jobService.getJobById(jobId).orElseThrow();
+        renamed.setTitle("Renamed once");
+        long versionBefore = jobService.saveJob(renamed).getVersion();
+
+        Job body = new Job();
+        body.setId(jobId);
+        body.setTitle("Renamed twice");
+        body.setCompany("Acme Logistics");
+        body.setLocation("York");
+        body.setSkills(null);
+        ResponseEntity<?> response = jobController.createOrUpdateJob(body);
+
+        assertEquals(200, response.getStatusCode().value());
+        Job stored = jobService.getJobById(jobId).orElseThrow();
+        assertEquals("Renamed twice", stored.getTitle());
+        assertEquals("York", stored.getLocation());
+        assertEquals("forklift, inventory", stored.getSkills());
+        assertNotNull(stored.getChangeSeq());
+        assertTrue(stored.getVersion() > versionBefore);
+    }
+
+    @Test
+    void postWithUnknownIdIsNotFound() {
+        Job body = new Job();
+        body.setId(Long.MAX_VALUE);
+        body.setTitle("Ghost");
+        assertEquals(404, jobController.createOrUpdateJob(body).getStatusCode().value());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.smartjobsearch.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Identical uploads share one stored body, and the body goes with its last reference.
+ */
+@SpringBootTest
+class LocalResumeStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    private LocalResumeStore store;
+    private byte[] resume;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalResumeStore(dir.toString(), transactionManager);
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+        resume = ("%PDF resume " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String upload(byte[] body) throws IOException {
+        return store.store(new ByteArrayInputStream(body));
+    }
+
+    private Integer refCount(String key) {
+        return jdbcTemplate.query("select ref_count from resume_blob where storage_key = ?",
+            rs -> rs.next() ? rs.getInt(1) : null, key);
+    }
+
+    private long storedFiles() throws IOException {
+        try (var files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void identicalUploadsShareOneShardedCopy() throws IOException {
+        String key = upload(resume);
+
+        assertEquals(key, upload(resume.clone()));
+        assertEquals(2, refCount(key));
+        assertEquals(1, storedFiles());
+        assertTrue(Files.isRegularFile(dir.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key)));
+        assertArrayEquals(resume, store.load(key).orElseThrow().getInputStream().readAllBytes());
+    }
+
+    @Test
+    void bodyIsDeletedWithItsLastReference() throws IOException {
+        String key = upload(resume);
+        upload(resume);
+
+        store.release(key);
+        assertEquals(1, refCount(key));
+        assertTrue(store.load(key).isPresent());
+
+        store.release(key);
+        assertNull(refCount(key));
+        assertTrue(store.load(key).isEmpty());
+
+        // An extra release never drives the count negative or touches other bodies
+        String other = upload("another resume".getBytes(StandardCharsets.UTF_8));
+        store.release(key);
+        assertTrue(store.load(other).isPresent());
+        store.release(other);
+    }
+
+    @Test
+    void malformedKeysAreIgnored() throws IOException {
+        assertTrue(store.load("../../etc/passwd").isEmpty());
+        store.release("../../etc/passwd");
+        store.release(null);
+        assertEquals(0, storedFiles());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.smartjobsearch.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MlpRerankerTest {
+
+    @TempDir
+    Path dir;
+
+    // 2 -> 2 (ReLU) -> 1 (sigmoid): h = [relu(x0), relu(-x1)], out = sigmoid(h0 + 2 * h1 - 0.5)
+    private static byte[] tinyModel() {
+        ByteBuffer buf = ByteBuffer.allocate(4 + 4 + 8 + 4 * 4 + 2 * 4 + 8 + 2 * 4 + 4).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put(new byte[] { 'R', 'R', 'K', '1' });
+        buf.putInt(2);
+        buf.putInt(2).putInt(2);
+        buf.putFloat(1f).putFloat(0f).putFloat(0f).putFloat(-1f);
+        buf.putFloat(0f).putFloat(0f);
+        buf.putInt(2).putInt(1);
+        buf.putFloat(1f).putFloat(2f);
+        buf.putFloat(-0.5f);
+        return buf.array();
+    }
+
+    private MlpReranker reranker() {
+        MlpReranker reranker = new MlpReranker();
+        ReflectionTestUtils.setField(reranker, "modelPath", dir.resolve("reranker.bin").toString());
+        return reranker;
+    }
+
+    private static float sigmoid(double x) {
+        return (float) (1.0 / (1.0 + Math.exp(-x)));
+    }
+
+    @Test
+    void forwardPassMatchesTheExportedNetwork() {
+        MlpReranker reranker = reranker();
+        assertFalse(reranker.isAvailable());
+        reranker.load(tinyModel());
+
+        assertTrue(reranker.isAvailable());
+        assertEquals(2, reranker.inputSize());
+        assertEquals(sigmoid(0.5 - 0.5), reranker.score(0.5f, 0.3f), 1e-6);
+        assertEquals(sigmoid(0.2 + 2 * 0.4 - 0.5), reranker.score(0.2f, -0.4f), 1e-6);
+    }
+
+    @Test
+    void scoreAllScoresEveryPackedRow() {
+        MlpReranker reranker = reranker();
+        reranker.load(tinyModel());
+        float[] features = { 0.5f, 0.3f, 0.2f, -0.4f, -1f, -1f };
+        float[] out = new float[3];
+
+        reranker.scoreAll(features, 3, out);
+
+        assertEquals(reranker.score(0.5f, 0.3f), out[0], 1e-6);
+        assertEquals(reranker.score(0.2f, -0.4f), out[1], 1e-6);
+        assertEquals(sigmoid(2 - 0.5), out[2], 1e-6);
+    }
+
+    @Test
+    void loadedWeightsSurviveAReload() throws Exception {
+        reranker().load(tinyModel());
+        assertTrue(Files.exists(dir.resolve("reranker.bin")));
+
+        MlpReranker restarted = reranker();
+        assertTrue(restarted.reload());
+        assertEquals(sigmoid(0.0), restarted.score(0.5f, 0.3f), 1e-6);
+    }
+
+    @Test
+    void invalidWeightsAreRejectedAndKeepThePreviousModel() {
+        MlpReranker reranker = reranker();
+        reranker.load(tinyModel());
+        byte[] bad = tinyModel();
+        bad[0] = 'X';
+
+        assertThrows(IllegalArgumentException.class, () -> reranker.load(bad));
+        assertEquals(sigmoid(0.0), reranker.score(0.5f, 0.3f), 1e-6);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import com.example.smartjobsearch.repo.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NearDuplicateIndexTest {
+
+    private static final String DESCRIPTION = "We are hiring a backend engineer to design, build and operate the payment "
+        + "services behind our checkout, working with Java, Spring Boot, MySQL and Kafka in a small team that owns "
+        + "its services end to end, from design reviews through on-call, with a strong focus on testing and reliability";
+
+    private NearDuplicateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        JobRepository jobRepository = mock(JobRepository.class);
+        when(jobRepository.findAll()).thenReturn(List.of());
+        index = new NearDuplicateIndex(16, 8);
+        ReflectionTestUtils.setField(index, "jobRepository", jobRepository);
+        ReflectionTestUtils.setField(index, "threshold", 0.8);
+        ReflectionTestUtils.setField(index, "maxCandidates", 50);
+    }
+
+    private static Job job(String title, String description) {
+        Job job = new Job();
+        job.setTitle(title);
+        job.setCompany("Paystream");
+        job.setLocation("Dublin");
+        job.setDescription(description);
+        return job;
+    }
+
+    private void add(long id, Job job, Long duplicateOf) {
+        index.add(id, index.signature(job), duplicateOf);
+    }
+
+    @Test
+    void signaturesAreDeterministicAndIgnoreCase() {
+        assertArrayEquals(index.signature(job("Backend Engineer", DESCRIPTION)),
+            index.signature(job("backend engineer", DESCRIPTION.toUpperCase())));
+        assertNull(index.signature(new Job()));
+    }
+
+    @Test
+    void repostWithATrailingEditIsADuplicateOfTheOriginal() {
+        add(1, job("Backend Engineer", DESCRIPTION), null);
+
+        assertEquals(1L, index.findDuplicate(index.signature(job("Backend Engineer", DESCRIPTION + " apply now")), null));
+    }
+
+    @Test
+    void differentPostingIsNotADuplicate() {
+        add(1, job("Backend Engineer", DESCRIPTION), null);
+
+        Job other = job("Pastry Chef", "Bake bread, croissants and seasonal tarts for our neighbourhood bakery, "
+            + "starting at five in the morning and training two apprentices on laminated doughs");
+        assertNull(index.findDuplicate(index.signature(other), null));
+    }
+
+    @Test
+    void reSavingAJobDoesNotMatchItself() {
+        add(1, job("Backend Engineer", DESCRIPTION), null);
+
+        assertNull(index.findDuplicate(index.signature(job("Backend Engineer", DESCRIPTION)), 1L));
+    }
+
+    @Test
+    void copiesOfADuplicatePointAtTheCanonicalJob() {
+        add(1, job("Backend Engineer", DESCRIPTION), null);
+        add(2, job("Backend Engineer", DESCRIPTION + " apply now"), 1L);
+        index.remove(1L);
+
+        // Only job 2 is still indexed, but it resolves to its canonical job 1
+        assertEquals(1L, index.findDuplicate(index.signature(job("Backend Engineer", DESCRIPTION + " apply now")), null));
+        index.remove(2L);
+        assertNull(index.findDuplicate(index.signature(job("Backend Engineer", DESCRIPTION)), null));
+    }
+}
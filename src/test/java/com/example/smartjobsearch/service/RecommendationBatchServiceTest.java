@@ -0,0 +1,104 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.User;
+import com.example.smartjobsearch.repo.UserRecommendationRepository;
+import com.example.smartjobsearch.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Incremental precompute runs against the real schema with a stubbed recommender.
+ */
+@SpringBootTest
+class RecommendationBatchServiceTest {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRecommendationRepository userRecommendationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final JobRecommendationService recommender = mock(JobRecommendationService.class);
+    private RecommendationBatchService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        service = new RecommendationBatchService(1);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "userRecommendationRepository", userRecommendationRepository);
+        ReflectionTestUtils.setField(service, "jobRecommendationService", recommender);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "topN", 10);
+        ReflectionTestUtils.setField(service, "pageSize", 200);
+
+        user = new User("Batch Tester", "batch-tester-" + System.nanoTime(), "batch@example.com", "secret");
+        user.setProfileUpdatedAt(LocalDateTime.now().minusMinutes(1));
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void userWithNoRecommendationsIsNotReselectedByTheNextIncrementalRun() {
+        when(recommender.getBatchRecommendations(anyList(), anyInt())).thenAnswer(inv -> {
+            List<User> page = inv.getArgument(0);
+            return Map.of(page.get(0).getId(), new JobRecommendationService.JobRecommendationResult(List.of(), 0.0, List.of(), 0));
+        });
+        assertTrue(userRecommendationRepository.findUserIdsWithStaleRecommendations(EPOCH).contains(user.getId()));
+
+        service.runIncremental();
+
+        assertTrue(userRecommendationRepository.findByUserIdOrderByPositionAsc(user.getId()).isEmpty());
+        assertNotNull(userRepository.findById(user.getId()).orElseThrow().getRecommendationsComputedAt());
+        assertFalse(userRecommendationRepository.findUserIdsWithStaleRecommendations(EPOCH).contains(user.getId()));
+    }
+
+    @Test
+    void profileEditAfterTheRunMakesTheUserStaleAgain() {
+        transactionTemplate.executeWithoutResult(status ->
+            userRepository.markRecommendationsComputed(user.getId(), LocalDateTime.now().minusMinutes(2)));
+        assertTrue(userRecommendationRepository.findUserIdsWithStaleRecommendations(EPOCH).contains(user.getId()));
+    }
+
+    @Test
+    void onDemandRunsAreBoundedToOneRunningAndOneWaiting() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(recommender.getBatchRecommendations(anyList(), anyInt())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+
+        assertTrue(service.submit(false));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(service.submit(false));
+        assertFalse(service.submit(true));
+        release.countDown();
+    }
+}
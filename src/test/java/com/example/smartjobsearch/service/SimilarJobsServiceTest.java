@@ -0,0 +1,98 @@
+package com.example.smartjobsearch.service;
+
+import com.example.smartjobsearch.model.Job;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SimilarJobsServiceTest {
+
+    private final JobSearchIndex index = mock(JobSearchIndex.class);
+    private final Map<Long, Job> jobs = new HashMap<>();
+    private SimilarJobsService service;
+
+    // Similarity falls with the distance between ids, ties going to the larger ids
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) jobs.put(id, job(id, "OPEN"));
+        when(index.jobIds()).thenAnswer(inv -> jobs.keySet());
+        when(index.getJob(any())).thenAnswer(inv -> Optional.ofNullable(jobs.get((Long) inv.getArgument(0))));
+        when(index.getEmbedding(any())).thenReturn(new float[] { 1f });
+        when(index.similarity(any(), any())).thenAnswer(inv -> distanceSimilarity(inv.getArgument(0), inv.getArgument(1)));
+        service = new SimilarJobsService();
+        ReflectionTestUtils.setField(service, "jobSearchIndex", index);
+        ReflectionTestUtils.setField(service, "neighbours", 2);
+    }
+
+    private static Job job(long id, String status) {
+        Job job = new Job();
+        job.setId(id);
+        job.setStatus(status);
+        return job;
+    }
+
+    private static double distanceSimilarity(long a, long b) {
+        return 1 - Math.abs(a - b) / 10.0 + (a + b) / 1000.0;
+    }
+
+    private static List<Long> ids(List<Job> jobs) {
+        return jobs.stream().map(Job::getId).toList();
+    }
+
+    @Test
+    void listsArePrecomputedInTheBackgroundAndServedFromTheCache() {
+        service.refresh();
+        clearInvocations(index);
+
+        assertEquals(List.of(4L, 2L), ids(service.getSimilarJobs(3L, 10)));
+        assertEquals(List.of(2L), ids(service.getSimilarJobs(1L, 1)));
+        verify(index, never()).similarity(any(), any());
+    }
+
+    @Test
+    void closedJobsAreNeverListed() {
+        jobs.put(2L, job(2, "CLOSED"));
+        service.refresh();
+
+        assertEquals(List.of(4L, 5L), ids(service.getSimilarJobs(3L, 10)));
+        assertEquals(List.of(3L, 4L), ids(service.getSimilarJobs(1L, 10)));
+    }
+
+    @Test
+    void closingAJobDropsItFromOtherListsAndTheNextPassRefillsThem() {
+        service.refresh();
+        jobs.put(4L, job(4, "CLOSED"));
+
+        service.jobIndexed(jobs.get(4L));
+
+        assertEquals(List.of(2L), ids(service.getSimilarJobs(3L, 10)));
+        service.refresh();
+        assertEquals(List.of(2L, 5L), ids(service.getSimilarJobs(3L, 10)));
+        assertEquals(List.of(3L, 2L), ids(service.getSimilarJobs(5L, 10)));
+    }
+
+    @Test
+    void savedJobIsMergedIntoCachedLists() {
+        service.refresh();
+        jobs.put(6L, job(6, "OPEN"));
+        doAnswer(inv -> {
+            long a = inv.getArgument(0), b = inv.getArgument(1);
+            if (a == 6 || b == 6) return (a == 3 || b == 3) ? 0.99 : Math.min(a, b) / 100.0;
+            return distanceSimilarity(a, b);
+        }).when(index).similarity(any(), any());
+
+        service.jobIndexed(jobs.get(6L));
+
+        assertEquals(List.of(6L, 4L), ids(service.getSimilarJobs(3L, 10)));
+        assertEquals(List.of(3L, 5L), ids(service.getSimilarJobs(6L, 10)));
+    }
+}